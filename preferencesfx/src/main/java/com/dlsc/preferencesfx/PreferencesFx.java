@@ -1,7 +1,10 @@
 package com.dlsc.preferencesfx;
 
+import static com.dlsc.preferencesfx.util.Constants.DEFAULT_AUTO_SAVE_DELAY;
+
 import com.dlsc.formsfx.model.util.TranslationService;
 import com.dlsc.preferencesfx.history.History;
+import com.dlsc.preferencesfx.history.HistoryJournal;
 import com.dlsc.preferencesfx.model.Category;
 import com.dlsc.preferencesfx.model.PreferencesFxModel;
 import com.dlsc.preferencesfx.util.SearchHandler;
@@ -18,6 +21,8 @@ import com.dlsc.preferencesfx.view.PreferencesFxDialog;
 import com.dlsc.preferencesfx.view.PreferencesFxPresenter;
 import com.dlsc.preferencesfx.view.PreferencesFxView;
 import com.dlsc.preferencesfx.view.UndoRedoBox;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.event.EventType;
@@ -116,11 +121,11 @@ public class PreferencesFx {
   }
 
   /**
-   * Prepares the CategoryController by creating CategoryView / CategoryPresenter pairs from all
-   * Categories and loading them into the CategoryController.
+   * Prepares the CategoryController to create the CategoryView / CategoryPresenter pair of a
+   * Category on demand, the first time the Category is being displayed.
    */
   private void initializeCategoryViews() {
-    preferencesFxModel.getFlatCategoriesLst().forEach(category -> {
+    categoryController.setViewLoader(category -> {
       CategoryView categoryView = new CategoryView(preferencesFxModel, category);
       CategoryPresenter categoryPresenter = new CategoryPresenter(
           preferencesFxModel, category, categoryView, breadCrumbPresenter
@@ -200,6 +205,49 @@ public class PreferencesFx {
     preferencesFxModel.saveSettings();
   }
 
+  /**
+   * Same as {@link #saveSettings()}, but rewrites the values of all settings to the storage, even
+   * those which didn't change since they were last loaded or saved.
+   */
+  public void saveAllSettings() {
+    preferencesFxModel.saveAllSettings();
+  }
+
+  /**
+   * Changes the values of multiple settings as one change, for example to reset a group of
+   * settings or to apply a profile. Undo and redo apply all of the changes at once.
+   *
+   * @param action the action which changes the values of the settings
+   */
+  public void doAsTransaction(Runnable action) {
+    preferencesFxModel.doAsTransaction(action);
+  }
+
+  /**
+   * Loads the values of the settings which changed in the storage since they were last loaded or
+   * saved, for example by another instance of the application.
+   *
+   * @return the amount of settings which were updated
+   */
+  public int reloadSettings() {
+    return preferencesFxModel.reloadSettingValues();
+  }
+
+  /**
+   * Defines whether the settings are updated when their values are changed in the storage outside
+   * of PreferencesFX, for example by another instance of the application or an administration
+   * tool. The updates are not recorded in the history.
+   *
+   * @param watchExternalChanges if true, externally changed values are loaded. Defaults to false.
+   * @return this object for fluent API
+   * @apiNote Requires a {@link StorageHandler} which supports watching changes, like the default
+   *          one. Changes made by other processes are noticed with a short delay.
+   */
+  public PreferencesFx watchExternalChanges(boolean watchExternalChanges) {
+    preferencesFxModel.setWatchExternalChanges(watchExternalChanges);
+    return this;
+  }
+
   /**
    * Call this method to undo all changes made in the settings when showing the preferences by using
    * {@link #getView()}.
@@ -229,6 +277,48 @@ public class PreferencesFx {
     return this;
   }
 
+  /**
+   * Limits how many changes are kept in the undo / redo history.
+   * When there are more changes, the oldest ones are discarded and can no longer be undone.
+   *
+   * @param maxSize the maximum amount of changes to keep, 0 or less for no limit.
+   *                Defaults to no limit.
+   * @return this object for fluent API
+   */
+  public PreferencesFx maxHistorySize(int maxSize) {
+    preferencesFxModel.getHistory().setMaxSize(maxSize);
+    return this;
+  }
+
+  /**
+   * Defines that successive changes of the same setting are only combined into one undoable
+   * change, if they follow each other within {@code windowMillis}. Rapid changes, like dragging a
+   * slider, then only update one change and a pause starts a new one.
+   *
+   * @param windowMillis the window in milliseconds, 0 or less to combine all successive changes of
+   *                     the same setting. Defaults to 0.
+   * @return this object for fluent API
+   */
+  public PreferencesFx historyCoalescingWindow(long windowMillis) {
+    preferencesFxModel.getHistory().setCoalescingWindow(windowMillis);
+    return this;
+  }
+
+  /**
+   * Keeps the undo / redo history in an append-only journal file, so changes can still be undone
+   * and redone after the application has been restarted or has crashed. The changes which were
+   * recorded in the journal before are restored immediately.
+   *
+   * @param file the journal file, which is created if it doesn't exist yet
+   * @return this object for fluent API
+   * @apiNote Call {@link #maxHistorySize(int)} before this method, so a large journal is only
+   *     restored up to the maximum size.
+   */
+  public PreferencesFx historyJournal(Path file) {
+    preferencesFxModel.setHistoryJournal(new HistoryJournal(file));
+    return this;
+  }
+
   /**
    * Defines whether changes should be instantly persisted or not.
    * When {@code instantPersistent} is false, call {@link #saveSettings()} to apply the changes.
@@ -241,6 +331,106 @@ public class PreferencesFx {
     return this;
   }
 
+  /**
+   * Defines whether changed setting values should be saved automatically in the background.
+   * Changes are written by a background thread shortly after they were made, so closing the
+   * dialog or the window doesn't need to wait for the storage. Repeated changes of the same setting
+   * are written only once. Call {@link #flushAutoSave(long, TimeUnit)} before the application
+   * exits to make sure all changes have been written.
+   *
+   * @param autoSave if true, changes are saved automatically. Defaults to false.
+   * @return this object for fluent API
+   * @apiNote The {@link StorageHandler} is called from the background thread, so custom
+   *     implementations need to be thread-safe when auto save is enabled.
+   */
+  public PreferencesFx autoSave(boolean autoSave) {
+    return autoSave(autoSave, DEFAULT_AUTO_SAVE_DELAY);
+  }
+
+  /**
+   * Same as {@link #autoSave(boolean)}, but with a custom delay after which the changes are
+   * written.
+   *
+   * @param autoSave    if true, changes are saved automatically. Defaults to false.
+   * @param delayMillis how many milliseconds to wait after a change before writing it.
+   *                    Defaults to 300.
+   * @return this object for fluent API
+   */
+  public PreferencesFx autoSave(boolean autoSave, long delayMillis) {
+    preferencesFxModel.setAutoSave(autoSave, delayMillis);
+    return this;
+  }
+
+  /**
+   * Writes all changes which are still waiting to be saved automatically and waits until they have
+   * been written. Call this method before the application exits when using
+   * {@link #autoSave(boolean)}.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit    the time unit of the timeout
+   * @return true if all changes were written, false if the timeout elapsed or writing failed
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  public boolean flushAutoSave(long timeout, TimeUnit unit) throws InterruptedException {
+    return preferencesFxModel.flushAutoSave(timeout, unit);
+  }
+
+  /**
+   * Limits how many category views are kept in memory at the same time.
+   * Category views are created the first time their category is displayed. When more than
+   * {@code maxLoadedViews} have been created, the least recently displayed ones are released and
+   * will be created again once their category is displayed again.
+   *
+   * @param maxLoadedViews the maximum amount of category views to keep, 0 or less for no limit.
+   *                       Defaults to no limit.
+   * @return this object for fluent API
+   */
+  public PreferencesFx maxLoadedCategoryViews(int maxLoadedViews) {
+    categoryController.setMaxLoadedViews(maxLoadedViews);
+    return this;
+  }
+
+  /**
+   * Renders categories with many settings in a virtualized list, which only creates the rows of
+   * the settings which are scrolled into view, instead of in one form containing all settings.
+   * Useful for categories with hundreds of settings, whose layout would otherwise be slow.
+   *
+   * @param minSettings the minimum amount of settings of a category to virtualize its view,
+   *                    0 or less to never virtualize views. Defaults to 0.
+   * @return this object for fluent API
+   * @apiNote In a virtualized view, the labels of the settings don't share a column, but take up a
+   *          fixed share of the width instead.
+   */
+  public PreferencesFx virtualizeLargeCategories(int minSettings) {
+    preferencesFxModel.setVirtualizationThreshold(minSettings);
+    return this;
+  }
+
+  /**
+   * Defines how long the search waits after the search text was changed before searching.
+   * Useful for large amounts of settings, so that fast typing doesn't search for every character.
+   *
+   * @param delayMillis the delay in milliseconds, 0 to search immediately. Defaults to 0.
+   * @return this object for fluent API
+   */
+  public PreferencesFx searchDelay(long delayMillis) {
+    preferencesFxModel.getSearchHandler().setSearchDelay(delayMillis);
+    return this;
+  }
+
+  /**
+   * Defines whether the matches of the search are determined on a background thread.
+   * Only the marking of the matches and the selection of the matching category happen on the
+   * JavaFX application thread, searches for outdated search texts are discarded.
+   *
+   * @param backgroundSearch if true, searches run on a background thread. Defaults to false.
+   * @return this object for fluent API
+   */
+  public PreferencesFx backgroundSearch(boolean backgroundSearch) {
+    preferencesFxModel.getSearchHandler().setBackgroundSearch(backgroundSearch);
+    return this;
+  }
+
   public PreferencesFx buttonsVisibility(boolean isVisible) {
     preferencesFxModel.setButtonsVisible(isVisible);
     return this;
@@ -126,15 +126,15 @@ public class DoubleSliderControl extends SimpleControl<DoubleField, HBox> {
   @Override
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
-    field.userInputProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.userInputProperty(), (observable, oldValue, newValue) -> {
       double sliderValue = round(Double.parseDouble(field.getUserInput()), precision);
       slider.setValue(sliderValue);
       valueLabel.setText(String.valueOf(sliderValue));
     });
 
-    field.errorMessagesProperty().addListener(
+    addFieldListener(field.errorMessagesProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(slider));
-    field.tooltipProperty().addListener(
+    addFieldListener(field.tooltipProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(slider));
 
     slider.focusedProperty().addListener(
@@ -150,4 +150,14 @@ public class DoubleSliderControl extends SimpleControl<DoubleField, HBox> {
       field.userInputProperty().setValue(String.valueOf(round(newValue.doubleValue(), precision)));
     });
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    slider = null;
+    valueLabel = null;
+  }
 }
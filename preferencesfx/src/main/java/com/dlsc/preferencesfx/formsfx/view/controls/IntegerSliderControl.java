@@ -107,15 +107,15 @@ public class IntegerSliderControl extends SimpleControl<IntegerField, HBox> {
   @Override
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
-    field.userInputProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.userInputProperty(), (observable, oldValue, newValue) -> {
       int sliderValue = Integer.parseInt(field.getUserInput());
       slider.setValue(sliderValue);
       valueLabel.setText(String.valueOf(sliderValue));
     });
 
-    field.errorMessagesProperty().addListener(
+    addFieldListener(field.errorMessagesProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(slider));
-    field.tooltipProperty().addListener(
+    addFieldListener(field.tooltipProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(slider));
 
     slider.focusedProperty().addListener(
@@ -132,4 +132,14 @@ public class IntegerSliderControl extends SimpleControl<IntegerField, HBox> {
     });
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    fieldLabel = null;
+    slider = null;
+    valueLabel = null;
+  }
 }
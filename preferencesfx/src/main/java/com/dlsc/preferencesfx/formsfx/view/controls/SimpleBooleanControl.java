@@ -83,14 +83,16 @@ public class SimpleBooleanControl extends SimpleControl<BooleanField, CheckBox>
   @Override
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
-    field.userInputProperty().addListener((observable, oldValue, newValue) ->
+    addFieldListener(field.userInputProperty(), (observable, oldValue, newValue) ->
         node.setSelected(Boolean.parseBoolean(field.getUserInput()))
     );
 
-    field.errorMessagesProperty().addListener(
+    addFieldListener(field.errorMessagesProperty(),
+        (observable, oldValue, newValue) -> toggleTooltip(node)
+    );
+    addFieldListener(field.tooltipProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(node)
     );
-    field.tooltipProperty().addListener((observable, oldValue, newValue) -> toggleTooltip(node));
 
     node.focusedProperty().addListener((observable, oldValue, newValue) -> toggleTooltip(node));
   }
@@ -97,22 +97,22 @@ public class SimpleCheckBoxControl<V> extends SimpleControl<MultiSelectionField<
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
 
-    field.itemsProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.itemsProperty(), (observable, oldValue, newValue) -> {
       createCheckboxes();
       setupCheckboxBindings();
       setupCheckboxEventHandlers();
     });
 
-    field.selectionProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.selectionProperty(), (observable, oldValue, newValue) -> {
       for (int i = 0; i < checkboxes.size(); i++) {
         checkboxes.get(i).setSelected(field.getSelection().contains(field.getItems().get(i)));
       }
     });
 
-    field.errorMessagesProperty().addListener((observable, oldValue, newValue) ->
+    addFieldListener(field.errorMessagesProperty(), (observable, oldValue, newValue) ->
         toggleTooltip(node, checkboxes.get(checkboxes.size() - 1))
     );
-    field.tooltipProperty().addListener((observable, oldValue, newValue) ->
+    addFieldListener(field.tooltipProperty(), (observable, oldValue, newValue) ->
         toggleTooltip(node, checkboxes.get(checkboxes.size() - 1))
     );
 
@@ -179,4 +179,12 @@ public class SimpleCheckBoxControl<V> extends SimpleControl<MultiSelectionField<
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    checkboxes.clear();
+  }
 }
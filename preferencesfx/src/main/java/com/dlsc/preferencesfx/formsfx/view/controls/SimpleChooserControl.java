@@ -216,12 +216,12 @@ public class SimpleChooserControl extends SimpleControl<StringField, StackPane>
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
 
-    field.multilineProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.multilineProperty(), (observable, oldValue, newValue) -> {
       node.setPrefHeight(newValue ? 80 : 0);
       readOnlyLabel.setPrefHeight(newValue ? 80 : 26);
     });
 
-    field.errorMessagesProperty().addListener((observable, oldValue, newValue) ->
+    addFieldListener(field.errorMessagesProperty(), (observable, oldValue, newValue) ->
         toggleTooltip(field.isMultiline() ? editableArea : editableField)
     );
 
@@ -233,4 +233,18 @@ public class SimpleChooserControl extends SimpleControl<StringField, StackPane>
     );
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    editableField = null;
+    editableArea = null;
+    readOnlyLabel = null;
+    fieldLabel = null;
+    // the button and box are created up front, so they are replaced instead of cleared
+    chooserButton = new Button();
+    contentBox = new HBox();
+  }
 }
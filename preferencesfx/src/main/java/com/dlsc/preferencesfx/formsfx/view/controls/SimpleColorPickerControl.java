@@ -119,7 +119,7 @@ public class SimpleColorPickerControl extends SimpleControl<StringField, StackPa
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
 
-    field.valueProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.valueProperty(), (observable, oldValue, newValue) -> {
       if (!newValue.isEmpty()) {
         Color newColor = Color.valueOf(newValue);
         if (!colorPicker.getValue().equals(newColor)) {
@@ -128,14 +128,24 @@ public class SimpleColorPickerControl extends SimpleControl<StringField, StackPa
       }
     });
 
-    field.errorMessagesProperty().addListener(
+    addFieldListener(field.errorMessagesProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(colorPicker)
     );
-    field.tooltipProperty().addListener(
+    addFieldListener(field.tooltipProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(colorPicker)
     );
     colorPicker.focusedProperty().addListener(
         (observable, oldValue, newValue) -> toggleTooltip(colorPicker)
     );
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    colorPicker = null;
+    fieldLabel = null;
+  }
 }
@@ -117,11 +117,11 @@ public class SimpleComboBoxControl<V> extends SimpleControl<SingleSelectionField
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
 
-    field.itemsProperty().addListener(
+    addFieldListener(field.itemsProperty(),
         (observable, oldValue, newValue) -> comboBox.setItems(field.getItems())
     );
 
-    field.selectionProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.selectionProperty(), (observable, oldValue, newValue) -> {
       if (field.getSelection() != null) {
         comboBox.getSelectionModel().select(field.getItems().indexOf(field.getSelection()));
       } else {
@@ -129,10 +129,10 @@ public class SimpleComboBoxControl<V> extends SimpleControl<SingleSelectionField
       }
     });
 
-    field.errorMessagesProperty().addListener(
+    addFieldListener(field.errorMessagesProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(comboBox)
     );
-    field.tooltipProperty().addListener(
+    addFieldListener(field.tooltipProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(comboBox)
     );
     comboBox.focusedProperty().addListener(
@@ -150,4 +150,14 @@ public class SimpleComboBoxControl<V> extends SimpleControl<SingleSelectionField
     );
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    fieldLabel = null;
+    comboBox = null;
+    readOnlyLabel = null;
+  }
 }
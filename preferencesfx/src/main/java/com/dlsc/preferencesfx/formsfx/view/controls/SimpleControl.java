@@ -20,7 +20,13 @@ package com.dlsc.preferencesfx.formsfx.view.controls;
  * =========================LICENSE_END==================================
  */
 
+import java.util.ArrayList;
+import java.util.List;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.css.PseudoClass;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
@@ -70,6 +76,10 @@ public abstract class SimpleControl<F extends Field, N extends Node>
    * Tooltip to hold the error message.
    */
   Tooltip tooltip;
+  /**
+   * Removes the listeners which were added to the field, when the control is released.
+   */
+  private final List<Runnable> fieldListenerRemovals = new ArrayList<>();
 
   @Override
   public void setField(F field) {
@@ -93,7 +103,10 @@ public abstract class SimpleControl<F extends Field, N extends Node>
 
   @Override
   public void initializeParts() {
-    field.getStyleClass().add("simple-control");
+    // the style class is already present if the control was released and set up again
+    if (!field.getStyleClass().contains("simple-control")) {
+      field.getStyleClass().add("simple-control");
+    }
 
     tooltip = new Tooltip();
     tooltip.getStyleClass().add("simple-tooltip");
@@ -120,30 +133,31 @@ public abstract class SimpleControl<F extends Field, N extends Node>
     fieldLabel.textProperty().bind(field.labelProperty());
 
     if (this.visibilityProperty != null) {
-      this.node.visibleProperty().bind(this.visibilityProperty.get());
-      this.node.managedProperty().bind(this.visibilityProperty.get());
+      BooleanProperty visible = this.visibilityProperty.get();
+      this.node.visibleProperty().bind(visible);
+      this.node.managedProperty().bind(visible);
 
-      this.getFieldLabel().visibleProperty().bind(this.visibilityProperty.get());
-      this.getFieldLabel().managedProperty().bind(this.visibilityProperty.get());
+      this.getFieldLabel().visibleProperty().bind(visible);
+      this.getFieldLabel().managedProperty().bind(visible);
     }
   }
 
   @Override
   public void setupValueChangedListeners() {
-    field.validProperty().addListener(
+    addFieldListener(field.validProperty(),
         (observable, oldValue, newValue) -> updateStyle(INVALID_CLASS, !newValue)
     );
-    field.requiredProperty().addListener(
+    addFieldListener(field.requiredProperty(),
         (observable, oldValue, newValue) -> updateStyle(REQUIRED_CLASS, newValue)
     );
-    field.changedProperty().addListener(
+    addFieldListener(field.changedProperty(),
         (observable, oldValue, newValue) -> updateStyle(CHANGED_CLASS, newValue)
     );
-    field.editableProperty().addListener(
+    addFieldListener(field.editableProperty(),
         (observable, oldValue, newValue) -> updateStyle(DISABLED_CLASS, !newValue)
     );
 
-    field.getStyleClass().addListener((ListChangeListener<String>) c -> {
+    addFieldListener(field.getStyleClass(), (ListChangeListener<String>) c -> {
       while (c.next()) {
         if (c.wasRemoved()) {
           fieldLabel.getStyleClass().removeAll(c.getRemoved());
@@ -158,6 +172,69 @@ public abstract class SimpleControl<F extends Field, N extends Node>
     });
   }
 
+  /**
+   * Adds a listener to a property of the field, which is removed again when the control is
+   * {@link #release() released}.
+   *
+   * @param observable the property of the field
+   * @param listener   the listener to add
+   * @param <T>        the type of the property
+   * @apiNote Listeners which reference parts of the control must be added using this method,
+   *          since the field would otherwise keep the nodes of the control from being garbage
+   *          collected after the control was released.
+   */
+  protected <T> void addFieldListener(
+      ObservableValue<T> observable,
+      ChangeListener<? super T> listener
+  ) {
+    observable.addListener(listener);
+    fieldListenerRemovals.add(() -> observable.removeListener(listener));
+  }
+
+  /**
+   * Adds a listener to a list of the field, which is removed again when the control is
+   * {@link #release() released}.
+   *
+   * @param list     the list of the field
+   * @param listener the listener to add
+   * @param <E>      the type of the elements of the list
+   * @see #addFieldListener(ObservableValue, ChangeListener)
+   */
+  protected <E> void addFieldListener(
+      ObservableList<E> list,
+      ListChangeListener<? super E> listener
+  ) {
+    list.addListener(listener);
+    fieldListenerRemovals.add(() -> list.removeListener(listener));
+  }
+
+  /**
+   * Detaches this control from its field and drops the nodes it created, so they can be garbage
+   * collected while the control isn't displayed.
+   * Afterwards, the control can be set up again with a call to {@link #setField(Field)}, which
+   * creates new nodes, while the configuration of the control, like its
+   * {@link VisibilityProperty}, is kept.
+   *
+   * @implSpec Subclasses which keep references to parts of their node must override this method
+   *           to clear them, and call {@code super.release()}.
+   * @apiNote Is called by PreferencesFX when the view of the category of the field is unloaded,
+   *          the nodes of the control must not be displayed anymore afterwards.
+   */
+  public void release() {
+    if (field == null) {
+      return;
+    }
+    fieldListenerRemovals.forEach(Runnable::run);
+    fieldListenerRemovals.clear();
+    if (tooltip != null) {
+      tooltip.hide();
+    }
+    field = null;
+    node = null;
+    fieldLabel = null;
+    tooltip = null;
+  }
+
   /**
    * Sets the error message as tooltip for the matching control and shows
    * them below the same control.
@@ -69,10 +69,10 @@ public class SimpleDoubleControl extends SimpleNumberControl<DoubleField, Double
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
 
-    field.tooltipProperty().addListener(
+    addFieldListener(field.tooltipProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(editableSpinner)
     );
-    field.errorMessagesProperty().addListener(
+    addFieldListener(field.errorMessagesProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(editableSpinner)
     );
   }
@@ -97,10 +97,10 @@ public class SimpleIntegerControl extends SimpleNumberControl<IntegerField, Inte
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
 
-    field.errorMessagesProperty().addListener(
+    addFieldListener(field.errorMessagesProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(editableSpinner)
     );
-    field.tooltipProperty().addListener(
+    addFieldListener(field.tooltipProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(editableSpinner)
     );
   }
@@ -114,11 +114,11 @@ public class SimpleListViewControl<V>
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
 
-    field.itemsProperty().addListener(
+    addFieldListener(field.itemsProperty(),
         (observable, oldValue, newValue) -> node.setItems(field.getItems())
     );
 
-    field.selectionProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.selectionProperty(), (observable, oldValue, newValue) -> {
       if (preventUpdate) {
         return;
       }
@@ -136,10 +136,12 @@ public class SimpleListViewControl<V>
       preventUpdate = false;
     });
 
-    field.errorMessagesProperty().addListener(
+    addFieldListener(field.errorMessagesProperty(),
+        (observable, oldValue, newValue) -> toggleTooltip(node)
+    );
+    addFieldListener(field.tooltipProperty(),
         (observable, oldValue, newValue) -> toggleTooltip(node)
     );
-    field.tooltipProperty().addListener((observable, oldValue, newValue) -> toggleTooltip(node));
     node.focusedProperty().addListener((observable, oldValue, newValue) -> toggleTooltip(node));
   }
 
@@ -167,4 +169,12 @@ public class SimpleListViewControl<V>
     });
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    fieldLabel = null;
+  }
 }
@@ -117,4 +117,15 @@ public abstract class SimpleNumberControl<F extends DataField, D extends Number>
         (observable, oldValue, newValue) -> toggleTooltip(editableSpinner)
     );
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    fieldLabel = null;
+    editableSpinner = null;
+    readOnlyLabel = null;
+  }
 }
@@ -159,7 +159,7 @@ public class SimplePasswordControl extends SimpleControl<PasswordField, StackPan
     public void setupValueChangedListeners() {
         super.setupValueChangedListeners();
 
-        field.errorMessagesProperty().addListener((observable, oldValue, newValue) -> toggleTooltip(editableField));
+        addFieldListener(field.errorMessagesProperty(), (observable, oldValue, newValue) -> toggleTooltip(editableField));
 
         editableField.focusedProperty().addListener((observable, oldValue, newValue) -> toggleTooltip(editableField));
     }
@@ -173,4 +173,19 @@ public class SimplePasswordControl extends SimpleControl<PasswordField, StackPan
         }
         return b.toString();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void release() {
+        super.release();
+        if (obfuscatedUserInputBinding != null) {
+            obfuscatedUserInputBinding.dispose();
+        }
+        obfuscatedUserInputBinding = null;
+        editableField = null;
+        readOnlyLabel = null;
+        fieldLabel = null;
+    }
 }
@@ -105,13 +105,13 @@ public class SimpleRadioButtonControl<V> extends SimpleControl<SingleSelectionFi
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
 
-    field.itemsProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.itemsProperty(), (observable, oldValue, newValue) -> {
       createRadioButtons();
       setupRadioButtonBindings();
       setupRadioButtonEventHandlers();
     });
 
-    field.selectionProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.selectionProperty(), (observable, oldValue, newValue) -> {
       if (field.getSelection() != null) {
         radioButtons.get(field.getItems().indexOf(field.getSelection())).setSelected(true);
       } else {
@@ -119,10 +119,10 @@ public class SimpleRadioButtonControl<V> extends SimpleControl<SingleSelectionFi
       }
     });
 
-    field.errorMessagesProperty().addListener((observable, oldValue, newValue) ->
+    addFieldListener(field.errorMessagesProperty(), (observable, oldValue, newValue) ->
         toggleTooltip(node, radioButtons.get(radioButtons.size() - 1))
     );
-    field.tooltipProperty().addListener((observable, oldValue, newValue) ->
+    addFieldListener(field.tooltipProperty(), (observable, oldValue, newValue) ->
         toggleTooltip(node, radioButtons.get(radioButtons.size() - 1))
     );
   }
@@ -180,4 +180,14 @@ public class SimpleRadioButtonControl<V> extends SimpleControl<SingleSelectionFi
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    toggleGroup = null;
+    radioButtons.clear();
+    fieldLabel = null;
+  }
 }
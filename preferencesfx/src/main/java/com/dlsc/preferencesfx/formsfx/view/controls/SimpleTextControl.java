@@ -138,12 +138,12 @@ public class SimpleTextControl extends SimpleControl<StringField, StackPane> {
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
 
-    field.multilineProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.multilineProperty(), (observable, oldValue, newValue) -> {
       node.setPrefHeight(newValue ? 80 : 0);
       readOnlyLabel.setPrefHeight(newValue ? 80 : 26);
     });
 
-    field.errorMessagesProperty().addListener((observable, oldValue, newValue) ->
+    addFieldListener(field.errorMessagesProperty(), (observable, oldValue, newValue) ->
         toggleTooltip(field.isMultiline() ? editableArea : editableField)
     );
 
@@ -155,4 +155,15 @@ public class SimpleTextControl extends SimpleControl<StringField, StackPane> {
     );
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    editableField = null;
+    editableArea = null;
+    readOnlyLabel = null;
+    fieldLabel = null;
+  }
 }
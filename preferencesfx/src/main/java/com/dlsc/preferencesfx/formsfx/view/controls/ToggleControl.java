@@ -74,7 +74,7 @@ public class ToggleControl extends SimpleControl<BooleanField, ToggleSwitch> {
   @Override
   public void setupValueChangedListeners() {
     super.setupValueChangedListeners();
-    field.userInputProperty().addListener((observable, oldValue, newValue) -> {
+    addFieldListener(field.userInputProperty(), (observable, oldValue, newValue) -> {
       node.setSelected(Boolean.parseBoolean(field.getUserInput()));
     });
   }
@@ -89,4 +89,12 @@ public class ToggleControl extends SimpleControl<BooleanField, ToggleSwitch> {
     });
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void release() {
+    super.release();
+    fieldLabel = null;
+  }
 }
@@ -1,11 +1,11 @@
 package com.dlsc.preferencesfx.formsfx.view.renderer;
 
 import com.dlsc.formsfx.model.structure.Form;
+import com.dlsc.formsfx.model.structure.Group;
 import com.dlsc.formsfx.view.util.ViewMixin;
 import com.dlsc.preferencesfx.model.Category;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import javafx.geometry.Insets;
 import javafx.scene.layout.GridPane;
 
@@ -46,9 +46,15 @@ public class PreferencesFxFormRenderer extends GridPane implements ViewMixin {
    */
   @Override
   public void initializeParts() {
-    groups = form.getGroups().stream().map(
-        group -> new PreferencesFxGroupRenderer((PreferencesFxGroup) group, this)
-    ).collect(Collectors.toList());
+    groups = new ArrayList<>(form.getGroups().size());
+    // each group starts in the row after the last row of the group before
+    int nextRow = 0;
+    for (Group group : form.getGroups()) {
+      PreferencesFxGroupRenderer renderer =
+          new PreferencesFxGroupRenderer((PreferencesFxGroup) group, this, nextRow);
+      nextRow = renderer.getNextRow();
+      groups.add(renderer);
+    }
   }
 
   /**
@@ -4,12 +4,13 @@ import com.dlsc.formsfx.model.structure.Element;
 import com.dlsc.formsfx.model.structure.Field;
 import com.dlsc.formsfx.model.structure.NodeElement;
 import com.dlsc.preferencesfx.formsfx.view.controls.SimpleControl;
-import com.dlsc.preferencesfx.util.PreferencesFxUtils;
 import com.dlsc.preferencesfx.util.VisibilityProperty;
 import java.util.List;
 import java.util.stream.Collectors;
+import javafx.beans.property.BooleanProperty;
 import javafx.geometry.Insets;
 import javafx.geometry.VPos;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Priority;
@@ -36,14 +37,30 @@ public class PreferencesFxGroupRenderer {
   private GridPane grid;
   private PreferencesFxGroup preferencesGroup;
 
+  /**
+   * The first row of the grid used by this group.
+   */
+  private final int firstRow;
+
+  /**
+   * The row after the last row used by this group, where the next group starts.
+   */
+  private int nextRow;
+
   /**
    * This is the constructor to pass over data.
    *
    * @param preferencesGroup The PreferencesGroup which gets rendered.
+   * @param grid             The grid the group is rendered into, or null if the title and the
+   *                         settings are placed by the caller, like in
+   *                         {@link VirtualizedFormRenderer}.
+   * @param firstRow         The first row of the grid to use, which has to be empty, as well as
+   *                         all rows after it.
    */
-  PreferencesFxGroupRenderer(PreferencesFxGroup preferencesGroup, GridPane grid) {
+  PreferencesFxGroupRenderer(PreferencesFxGroup preferencesGroup, GridPane grid, int firstRow) {
     this.preferencesGroup = preferencesGroup;
     this.grid = grid;
+    this.firstRow = firstRow;
     preferencesGroup.setRenderer(this);
     init();
   }
@@ -70,12 +87,12 @@ public class PreferencesFxGroupRenderer {
   public void layoutParts() {
     StringBuilder styleClass = new StringBuilder("group");
 
-    // if there are no rows yet, getRowCount returns -1, in this case the next row is 0
-    int nextRow = PreferencesFxUtils.getRowCount(grid) + 1;
+    // the rows are counted by the form renderer, instead of scanning all children of the grid
+    nextRow = firstRow;
 
     // Only when the preferencesGroup has a title
     if (preferencesGroup.getTitle() != null) {
-      grid.add(titleLabel, 0, nextRow++, 2, 1);
+      add(titleLabel, 0, nextRow++, 2);
       styleClass.append("-title");
       titleLabel.getStyleClass().add("group-title");
       // Set margin for all but first group titles to visually separate groups
@@ -95,9 +112,12 @@ public class PreferencesFxGroupRenderer {
       Element element = elements.get(i);
       if (element instanceof Field) {
         SimpleControl c = (SimpleControl) ((Field) element).getRenderer();
-        c.setField((Field) element);
-        grid.add(c.getFieldLabel(), 0, i + rowAmount, 1, 1);
-        grid.add(c.getNode(), 1, i + rowAmount, 1, 1);
+        // controls are released when the view of their category is unloaded, and set up again here
+        if (c.getField() == null) {
+          c.setField((Field) element);
+        }
+        add(c.getFieldLabel(), 0, i + rowAmount, 1);
+        add(c.getNode(), 1, i + rowAmount, 1);
 
         // Styling
         GridPane.setHgrow(c.getNode(), Priority.SOMETIMES);
@@ -117,14 +137,36 @@ public class PreferencesFxGroupRenderer {
         GridPane.setMargin(c.getNode(), margin);
         GridPane.setMargin(c.getFieldLabel(), margin);
 
-        c.getFieldLabel().getStyleClass().add(styleClass.toString() + "-label");
-        c.getNode().getStyleClass().add(styleClass.toString() + "-node");
+        addStyleClassOnce(c.getFieldLabel(), styleClass.toString() + "-label");
+        addStyleClassOnce(c.getNode(), styleClass.toString() + "-node");
       }
       if (element instanceof NodeElement) {
         NodeElement nodeElement = (NodeElement) element;
-        grid.add(nodeElement.getNode(), 0, i + rowAmount, GridPane.REMAINING, 1);
+        add(nodeElement.getNode(), 0, i + rowAmount, GridPane.REMAINING);
       }
     }
+    nextRow = rowAmount + elements.size();
+  }
+
+  /**
+   * Returns the row after the last row used by this group, after it has been laid out.
+   *
+   * @return the first row which can be used by the next group
+   */
+  int getNextRow() {
+    return nextRow;
+  }
+
+  private void add(Node node, int column, int row, int columnSpan) {
+    if (grid != null) {
+      grid.add(node, column, row, columnSpan, 1);
+    }
+  }
+
+  private void addStyleClassOnce(Node node, String styleClass) {
+    if (!node.getStyleClass().contains(styleClass)) {
+      node.getStyleClass().add(styleClass);
+    }
   }
 
   /**
@@ -136,8 +178,9 @@ public class PreferencesFxGroupRenderer {
     VisibilityProperty visibilityProperty = preferencesGroup.getVisibilityProperty();
 
     if (visibilityProperty != null) {
-      this.titleLabel.visibleProperty().bind(visibilityProperty.get());
-      this.titleLabel.managedProperty().bind(visibilityProperty.get());
+      BooleanProperty visible = visibilityProperty.get();
+      this.titleLabel.visibleProperty().bind(visible);
+      this.titleLabel.managedProperty().bind(visible);
     }
   }
 
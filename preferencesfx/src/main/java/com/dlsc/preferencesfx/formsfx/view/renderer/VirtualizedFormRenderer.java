@@ -0,0 +1,239 @@
+package com.dlsc.preferencesfx.formsfx.view.renderer;
+
+import static com.dlsc.preferencesfx.formsfx.view.renderer.PreferencesFxFormRenderer.SPACING;
+
+import com.dlsc.formsfx.model.structure.Element;
+import com.dlsc.formsfx.model.structure.Field;
+import com.dlsc.formsfx.model.structure.Form;
+import com.dlsc.formsfx.model.structure.Group;
+import com.dlsc.formsfx.model.structure.NodeElement;
+import com.dlsc.formsfx.view.util.ViewMixin;
+import com.dlsc.preferencesfx.formsfx.view.controls.SimpleControl;
+import com.dlsc.preferencesfx.model.Category;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.beans.InvalidationListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+
+/**
+ * Renders a {@link Form} for a {@link Category} with a large amount of settings in PreferencesFX.
+ *
+ * <p>In contrast to {@link PreferencesFxFormRenderer}, the groups and settings are not put into one
+ * {@link GridPane}. Each group title and setting is a row of a {@link ListView} instead, which only
+ * keeps the cells of the rows which are currently scrolled into view in the scene graph, so the
+ * layout and CSS passes don't have to handle all settings of the category.
+ *
+ * <p>Rows which are hidden by their {@link com.dlsc.preferencesfx.util.VisibilityProperty} are
+ * left out of the list. Since the labels in the rows don't share a column, the labels take up a
+ * fixed share of the width.
+ *
+ * @implNote The controls of all settings are still created up front, so marking settings in the
+ *           search works as with {@link PreferencesFxFormRenderer}. Each cell has its own pane,
+ *           into which the label and the control of the row it displays are moved.
+ */
+public class VirtualizedFormRenderer extends ListView<VirtualizedFormRenderer.Row>
+    implements ViewMixin {
+
+  /**
+   * The share of the width of a row which is taken up by the label of a setting, in percent.
+   */
+  private static final double LABEL_WIDTH_PERCENT = 35;
+
+  private Form form;
+  private List<PreferencesFxGroupRenderer> groups = new ArrayList<>();
+  private final ObservableList<Row> rows = FXCollections.observableArrayList();
+  private final FilteredList<Row> visibleRows = new FilteredList<>(rows, Row::isVisible);
+  private final InvalidationListener visibilityListener = observable -> refilter();
+
+  /**
+   * This is the constructor to pass over data.
+   *
+   * @param form The form which gets rendered.
+   */
+  public VirtualizedFormRenderer(Form form) {
+    this.form = form;
+    init();
+  }
+
+  @Override
+  public String getUserAgentStylesheet() {
+    return PreferencesFxFormRenderer.class.getResource("style.css").toExternalForm();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void initializeParts() {
+    groups = new ArrayList<>(form.getGroups().size());
+    // the rows are only counted, so the groups style their first rows like in a single grid
+    int nextRow = 0;
+    for (Group group : form.getGroups()) {
+      PreferencesFxGroup preferencesGroup = (PreferencesFxGroup) group;
+      PreferencesFxGroupRenderer renderer =
+          new PreferencesFxGroupRenderer(preferencesGroup, null, nextRow);
+      nextRow = renderer.getNextRow();
+      groups.add(renderer);
+
+      if (preferencesGroup.getTitle() != null) {
+        rows.add(new Row(renderer.getTitleLabel(), null));
+      }
+      for (Element element : group.getElements()) {
+        if (element instanceof Field) {
+          SimpleControl control = (SimpleControl) ((Field) element).getRenderer();
+          rows.add(new Row(control.getFieldLabel(), control.getNode()));
+        }
+        if (element instanceof NodeElement) {
+          rows.add(new Row(((NodeElement) element).getNode(), null));
+        }
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void layoutParts() {
+    getStyleClass().add("virtualized-form");
+    setFocusTraversable(false);
+    setItems(visibleRows);
+    setCellFactory(listView -> new RowCell());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setupBindings() {
+    rows.forEach(row -> row.getVisibilityNode().visibleProperty().addListener(visibilityListener));
+  }
+
+  private void refilter() {
+    // setting a new predicate makes the list evaluate it again for all rows
+    visibleRows.setPredicate(row -> row.isVisible());
+  }
+
+  /**
+   * A group title, a setting or a node of a group, displayed in one row.
+   */
+  public static final class Row {
+    private final Node label;
+    private final Node node;
+    /**
+     * The cells which display this row. Since a node can only have one parent, the nodes of the
+     * row are in the pane of only one of them.
+     */
+    private final List<RowCell> cells = new ArrayList<>(1);
+
+    /**
+     * Creates a row.
+     *
+     * @param label the label of the setting, or the title or node which spans the whole row
+     * @param node  the control of the setting, or null if {@code label} spans the whole row
+     */
+    private Row(Node label, Node node) {
+      this.label = label;
+      this.node = node;
+    }
+
+    private Node getVisibilityNode() {
+      return node == null ? label : node;
+    }
+
+    private boolean isVisible() {
+      return getVisibilityNode().isVisible();
+    }
+
+    private boolean isIn(GridPane pane) {
+      return label.getParent() == pane && (node == null || node.getParent() == pane);
+    }
+
+    /**
+     * Removes the nodes of this row from the pane of {@code cell}, which no longer displays it.
+     * If another cell still displays this row, for example if {@code cell} was only used to
+     * measure the row, the nodes are moved back to that cell.
+     */
+    private void release(RowCell cell) {
+      cells.remove(cell);
+      if (!isIn(cell.pane)) {
+        return;
+      }
+      cell.pane.getChildren().clear();
+      for (int i = cells.size() - 1; i >= 0; i--) {
+        RowCell other = cells.get(i);
+        if (other.getParent() != null && other.isVisible()) {
+          other.show(this);
+          return;
+        }
+        // the cell was discarded by the list without being emptied
+        cells.remove(i);
+      }
+    }
+  }
+
+  /**
+   * Displays the nodes of a row in its own pane, stretched to the width of the list.
+   */
+  private static final class RowCell extends ListCell<Row> {
+    private final GridPane pane = new GridPane();
+    private Row displayed;
+
+    private RowCell() {
+      setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+      pane.getStyleClass().add("virtualized-form-row");
+      pane.setHgap(SPACING * 3);
+      pane.setPadding(new Insets(0, SPACING * 3, 0, SPACING * 3));
+      ColumnConstraints labelColumn = new ColumnConstraints();
+      labelColumn.setPercentWidth(LABEL_WIDTH_PERCENT);
+      ColumnConstraints nodeColumn = new ColumnConstraints();
+      nodeColumn.setPercentWidth(100 - LABEL_WIDTH_PERCENT);
+      pane.getColumnConstraints().addAll(labelColumn, nodeColumn);
+      pane.prefWidthProperty().bind(widthProperty().subtract(SPACING * 2));
+    }
+
+    @Override
+    protected void updateItem(Row row, boolean empty) {
+      super.updateItem(row, empty);
+      Row next = empty ? null : row;
+      if (displayed != null && displayed != next) {
+        displayed.release(this);
+      }
+      displayed = next;
+      if (next == null) {
+        setGraphic(null);
+        return;
+      }
+      if (!next.cells.contains(this)) {
+        next.cells.add(this);
+      }
+      show(next);
+      setGraphic(pane);
+    }
+
+    /**
+     * Moves the nodes of {@code row} into the pane of this cell, unless they are already in it.
+     */
+    private void show(Row row) {
+      if (row.isIn(pane)) {
+        return;
+      }
+      pane.getChildren().clear();
+      if (row.node == null) {
+        pane.add(row.label, 0, 0, 2, 1);
+      } else {
+        pane.add(row.label, 0, 0);
+        pane.add(row.node, 1, 0);
+      }
+    }
+  }
+}
@@ -1,22 +1,23 @@
 package com.dlsc.preferencesfx.history;
 
 import com.dlsc.preferencesfx.model.Setting;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.Callable;
-import javafx.beans.binding.Bindings;
-import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyListProperty;
+import javafx.beans.property.ReadOnlyListWrapper;
 import javafx.beans.property.ReadOnlyObjectProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.beans.property.SimpleListProperty;
-import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import org.slf4j.Logger;
@@ -29,11 +30,11 @@ import org.slf4j.LoggerFactory;
  *            list change and in a {@link ObjectProperty} for regular changes as well
  * @author François Martin
  * @author Marco Sanfratello
- * @implNote There are two types: List changes and regular changes. Internally, all changes are
- *           saved into a {@link ListProperty} for the old and the new value, regardless of the
- *           type of change. However, if two {@link ObservableList} are used to create a change, a
- *           boolean flags the change as a list change. In case of a regular change, a binding will
- *           also set an {@link ObjectProperty} for easier handling.
+ * @implNote There are two types: List changes and regular changes. Regular changes only hold
+ *           references to the old and the new value. List changes hold unmodifiable snapshots of
+ *           the old and the new list, unless they are recorded as a {@link ListChange}, which only
+ *           holds the differences. The JavaFX properties of a change are only created when
+ *           they are requested, for example by the history dialog.
  */
 public class Change<P> {
 
@@ -42,15 +43,22 @@ public class Change<P> {
 
   protected final Setting setting;
 
-  private final ListProperty<P> oldList = new SimpleListProperty<>();
-  private final ListProperty<P> newList = new SimpleListProperty<>();
+  private final boolean listChange;
 
-  private final ObjectProperty<P> oldValue = new SimpleObjectProperty<>();
-  private final ObjectProperty<P> newValue = new SimpleObjectProperty<>();
+  private P oldValue;
+  private P newValue;
+  private List<P> oldList;
+  private List<P> newList;
 
-  private final BooleanProperty listChange = new SimpleBooleanProperty();
+  /**
+   * The time of the change, in milliseconds since the epoch.
+   */
+  private final long timestamp;
 
-  private final LocalDateTime timestamp;
+  private ReadOnlyListWrapper<P> oldListProperty;
+  private ReadOnlyListWrapper<P> newListProperty;
+  private ReadOnlyObjectWrapper<P> oldValueProperty;
+  private ReadOnlyObjectWrapper<P> newValueProperty;
 
   /**
    * Constructs a generalized change.
@@ -60,9 +68,8 @@ public class Change<P> {
    */
   protected Change(Setting setting, boolean listChange) {
     this.setting = setting;
-    this.listChange.set(listChange);
-    timestamp = LocalDateTime.now();
-    setupBindings();
+    this.listChange = listChange;
+    timestamp = System.currentTimeMillis();
   }
 
   /**
@@ -74,8 +81,8 @@ public class Change<P> {
    */
   public Change(Setting setting, ObservableList<P> oldList, ObservableList<P> newList) {
     this(setting, true);
-    this.oldList.set(FXCollections.observableArrayList(oldList));
-    this.newList.set(FXCollections.observableArrayList(newList));
+    this.oldList = snapshot(oldList);
+    this.newList = Objects.equals(this.oldList, newList) ? this.oldList : snapshot(newList);
   }
 
   /**
@@ -87,37 +94,15 @@ public class Change<P> {
    */
   public Change(Setting setting, P oldValue, P newValue) {
     this(setting, false);
-    this.oldList.set(FXCollections.observableArrayList(Arrays.asList(oldValue)));
-    this.newList.set(FXCollections.observableArrayList(Arrays.asList(newValue)));
-  }
-
-  private void setupBindings() {
-    // oldValue will represent the object contained in oldList, if this is not a listChange
-    oldValue.bind(
-        Bindings.createObjectBinding(createListToObjectBinding(oldList), oldList, listChange)
-    );
-    // newValue will represent the object contained in newList, if this is not a listChange
-    newValue.bind(
-        Bindings.createObjectBinding(createListToObjectBinding(newList), newList, listChange)
-    );
+    this.oldValue = oldValue;
+    this.newValue = newValue;
   }
 
-  /**
-   * Creates a function, which handles binding between a ListProperty and an ObjectProperty.
-   *
-   * <p>If this change isn't a list change, oldValue and newValue properties will have the single
-   * element inside of the list, for easier usage.
-   *
-   * @param listProperty to be bound to the object property
-   * @return Callable function, which binds a list to an object property.
-   */
-  private Callable createListToObjectBinding(ListProperty<P> listProperty) {
-    return () -> {
-      if (!isListChange() && listProperty.get() != null && listProperty.get().size() != 0) {
-        return listProperty.get().get(0);
-      }
+  private static <T> List<T> snapshot(List<T> list) {
+    if (list == null) {
       return null;
-    };
+    }
+    return Collections.unmodifiableList(new ArrayList<>(list));
   }
 
   /**
@@ -129,9 +114,9 @@ public class Change<P> {
    */
   public boolean isRedundant() {
     if (isListChange()) {
-      return Objects.equals(oldList.get(),newList.get());
+      return Objects.equals(oldList, newList);
     }
-    return oldValue.get().equals(newValue.get());
+    return Objects.equals(oldValue, newValue);
   }
 
   /**
@@ -141,10 +126,10 @@ public class Change<P> {
    */
   public void undo() {
     if (isListChange()) {
-      LOGGER.trace("Undoing list change: " + oldList.get().toString());
-      setting.valueProperty().setValue(oldList.get());
+      LOGGER.trace("Undoing list change: " + oldList);
+      setting.valueProperty().setValue(FXCollections.observableArrayList(oldList));
     } else {
-      setting.valueProperty().setValue(oldValue.get());
+      setting.valueProperty().setValue(oldValue);
     }
   }
 
@@ -155,44 +140,86 @@ public class Change<P> {
    */
   public void redo() {
     if (isListChange()) {
-      LOGGER.trace("Redoing list change: " + newList.get().toString());
-      setting.valueProperty().setValue(newList.get());
+      LOGGER.trace("Redoing list change: " + newList);
+      setting.valueProperty().setValue(FXCollections.observableArrayList(newList));
     } else {
-      setting.valueProperty().setValue(newValue.get());
+      setting.valueProperty().setValue(newValue);
     }
   }
 
   public ObservableList<P> getOldList() {
-    return oldList.get();
+    return toObservableList(oldList, oldValue);
   }
 
   public ObservableList<P> getNewList() {
-    return newList.get();
+    return toObservableList(newList, newValue);
+  }
+
+  private ObservableList<P> toObservableList(List<P> list, P value) {
+    if (!isListChange()) {
+      return FXCollections.observableArrayList(Collections.singletonList(value));
+    }
+    return list == null ? null : FXCollections.unmodifiableObservableList(
+        FXCollections.observableList(list)
+    );
   }
 
+  /**
+   * Sets the "after" values of this list change.
+   *
+   * @param newList the "after" value(s) of the change
+   */
   public void setNewList(ObservableList<P> newList) {
-    LOGGER.trace("Setting new List, old: " + oldList.toString() + " new: " + newList.toString());
-    this.newList.set(FXCollections.observableArrayList(newList));
+    LOGGER.trace("Setting new List, old: " + oldList + " new: " + newList);
+    this.newList = Objects.equals(oldList, newList) ? oldList : snapshot(newList);
+    if (newListProperty != null) {
+      newListProperty.set(getNewList());
+    }
+  }
+
+  /**
+   * Updates the "after" value(s) of this change to the ones of {@code next}, so this change
+   * includes both changes.
+   *
+   * @param next the change which was made on the same setting after this change
+   */
+  void merge(Change<P> next) {
+    if (isListChange()) {
+      setNewList(next.getNewList());
+    } else {
+      setNewValue(next.getNewValue());
+    }
   }
 
   public boolean isListChange() {
-    return listChange.get();
+    return listChange;
   }
 
   public ReadOnlyBooleanProperty listChangeProperty() {
-    return listChange;
+    return new ReadOnlyBooleanWrapper(this, "listChange", listChange).getReadOnlyProperty();
   }
 
   public P getOldValue() {
-    return oldValue.get();
+    return isListChange() ? null : oldValue;
   }
 
   public P getNewValue() {
-    return newValue.get();
+    return isListChange() ? null : newValue;
   }
 
+  /**
+   * Sets the "after" value of this regular change.
+   *
+   * @param newValue the "after" value of the change
+   */
   public void setNewValue(P newValue) {
-    this.newList.set(FXCollections.observableArrayList(Arrays.asList(newValue)));
+    this.newValue = newValue;
+    if (newValueProperty != null) {
+      newValueProperty.set(newValue);
+    }
+    if (newListProperty != null) {
+      newListProperty.set(getNewList());
+    }
   }
 
   public Setting getSetting() {
@@ -201,22 +228,35 @@ public class Change<P> {
 
   public String getTimestamp() {
     DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM);
-    return timestamp.format(formatter);
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault())
+        .format(formatter);
   }
 
   public ReadOnlyObjectProperty<P> oldValueProperty() {
-    return oldValue;
+    if (oldValueProperty == null) {
+      oldValueProperty = new ReadOnlyObjectWrapper<>(this, "oldValue", getOldValue());
+    }
+    return oldValueProperty.getReadOnlyProperty();
   }
 
   public ReadOnlyObjectProperty<P> newValueProperty() {
-    return newValue;
+    if (newValueProperty == null) {
+      newValueProperty = new ReadOnlyObjectWrapper<>(this, "newValue", getNewValue());
+    }
+    return newValueProperty.getReadOnlyProperty();
   }
 
   public ReadOnlyListProperty<P> oldListProperty() {
-    return oldList;
+    if (oldListProperty == null) {
+      oldListProperty = new ReadOnlyListWrapper<>(this, "oldList", getOldList());
+    }
+    return oldListProperty.getReadOnlyProperty();
   }
 
   public ReadOnlyListProperty<P> newListProperty() {
-    return newList;
+    if (newListProperty == null) {
+      newListProperty = new ReadOnlyListWrapper<>(this, "newList", getNewList());
+    }
+    return newListProperty.getReadOnlyProperty();
   }
 }
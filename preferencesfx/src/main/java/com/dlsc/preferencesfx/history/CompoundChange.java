@@ -0,0 +1,125 @@
+package com.dlsc.preferencesfx.history;
+
+import com.dlsc.preferencesfx.model.Setting;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Represents multiple changes of different settings, which are undone and redone together.
+ * Is created by {@link History#doAsTransaction(Runnable)}.
+ *
+ * @implNote {@link #getSetting()} returns {@code null}, since a compound change doesn't belong to
+ *           a single setting. The settings are returned by {@link #getSettings()}.
+ */
+public class CompoundChange extends Change<Object> {
+
+  private final List<Change> changes;
+
+  /**
+   * Constructs a compound change.
+   *
+   * @param changes the changes, in the order in which they were made
+   */
+  public CompoundChange(List<Change> changes) {
+    super(null, false);
+    this.changes = new ArrayList<>(changes);
+  }
+
+  /**
+   * Removes the changes of {@code setting}.
+   *
+   * @param setting the setting whose changes should be removed
+   * @return true if no changes are left
+   */
+  boolean removeChanges(Setting setting) {
+    changes.removeIf(change -> setting.equals(change.getSetting()));
+    return changes.isEmpty();
+  }
+
+  /**
+   * Checks if both compound changes consist of changes of the same settings, in the same order.
+   *
+   * @param other the other compound change
+   * @return true if the changes of {@code other} can be merged into this change
+   */
+  boolean hasSameSettings(CompoundChange other) {
+    if (changes.size() != other.changes.size()) {
+      return false;
+    }
+    for (int i = 0; i < changes.size(); i++) {
+      if (!Objects.equals(changes.get(i).getSetting(), other.changes.get(i).getSetting())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Updates the "after" values of all changes to the ones of the changes of {@code next}.
+   *
+   * @param next the compound change of the same settings, see {@link #hasSameSettings}
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  void merge(Change<Object> next) {
+    List<Change> nextChanges = ((CompoundChange) next).changes;
+    for (int i = 0; i < changes.size(); i++) {
+      changes.get(i).merge(nextChanges.get(i));
+    }
+  }
+
+  /**
+   * Undos all changes, in the reverse order in which they were made.
+   */
+  @Override
+  public void undo() {
+    for (int i = changes.size() - 1; i >= 0; i--) {
+      changes.get(i).undo();
+    }
+  }
+
+  /**
+   * Redos all changes, in the order in which they were made.
+   */
+  @Override
+  public void redo() {
+    changes.forEach(Change::redo);
+  }
+
+  @Override
+  public boolean isRedundant() {
+    return changes.stream().allMatch(Change::isRedundant);
+  }
+
+  @Override
+  public ObservableList<Object> getOldList() {
+    return changes.stream()
+        .map(change -> change.isListChange() ? change.getOldList() : change.getOldValue())
+        .collect(Collectors.toCollection(FXCollections::observableArrayList));
+  }
+
+  @Override
+  public ObservableList<Object> getNewList() {
+    return changes.stream()
+        .map(change -> change.isListChange() ? change.getNewList() : change.getNewValue())
+        .collect(Collectors.toCollection(FXCollections::observableArrayList));
+  }
+
+  public List<Change> getChanges() {
+    return Collections.unmodifiableList(changes);
+  }
+
+  /**
+   * Returns the settings which were changed.
+   *
+   * @return the settings of all changes, in the order in which they were changed
+   */
+  public List<Setting> getSettings() {
+    return changes.stream().map(Change::getSetting).collect(Collectors.toList());
+  }
+}
@@ -1,6 +1,17 @@
 package com.dlsc.preferencesfx.history;
 
 import com.dlsc.preferencesfx.model.Setting;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
@@ -12,6 +23,7 @@ import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +48,49 @@ public class History {
 
   private BooleanProperty listenerActive = new SimpleBooleanProperty(true);
 
+  private Consumer<Setting> valueChangedHandler = setting -> { };
+  /**
+   * Is called after a change was recorded, the changes it makes are recorded with it, null if none.
+   */
+  private Consumer<Setting> followUpHandler;
+  /**
+   * Whether the follow-up handler needs to be called after a change of a setting.
+   */
+  private Predicate<Setting> hasFollowUps = setting -> false;
+
+  /**
+   * The settings to which a change listener has been attached.
+   */
+  private final Set<Setting> attachedSettings =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /**
+   * The maximum amount of changes to keep, 0 or less for no limit.
+   */
+  private int maxSize = 0;
+
+  /**
+   * Successive changes of the same setting within this amount of milliseconds are coalesced into
+   * one change, 0 or less to coalesce all successive changes of the same setting.
+   */
+  private long coalescingWindow = 0;
+
+  /**
+   * The time of the last recorded change, as returned by {@link System#nanoTime()}.
+   */
+  private long lastChangeTime;
+
+  /**
+   * The changes made during the current transaction, mapped by their setting, null if there is no
+   * transaction.
+   */
+  private Map<Setting, Change> transactionChanges;
+
+  /**
+   * The journal in which all changes are recorded, null if the history is only kept in memory.
+   */
+  private HistoryJournal journal;
+
   /**
    * Initializes a new history object.
    */
@@ -53,36 +108,192 @@ public class History {
         return changes.get(index);
       }
       return null;
-    }, position));
+    }, position, changes));
   }
 
   /**
    * Adds a listener to the {@code setting}, so every time the value of the {@code setting} changes,
    * a new {@link Change} will be created and added to the list of changes.
+   * For settings of lists, a {@link ListChange} with the structural differences of the list is
+   * created instead, which also records changes made directly to the list. All modifications of
+   * the list are tracked, also the ones which aren't recorded, so a {@link ListChange} can detect
+   * when the list was modified outside of the history.
    *
    * @param setting the setting to observe for changes
+   * @apiNote A listener is only attached once to each setting, so calling this again for the same
+   *          setting has no effect.
    */
   public void attachChangeListener(Setting setting) {
+    if (!attachedSettings.add(setting)) {
+      LOGGER.trace("Change listener is already attached to: " + setting);
+      return;
+    }
     ChangeListener changeEvent = (observable, oldValue, newValue) -> {
       if (isListenerActive() && oldValue != newValue) {
         LOGGER.trace("Change detected, old: " + oldValue + " new: " + newValue);
-        addChange(new Change(setting, oldValue, newValue));
+        recordWithFollowUps(setting, () -> {
+          if (transactionChanges != null) {
+            Change change = transactionChanges.get(setting);
+            if (change != null) {
+              change.setNewValue(newValue);
+            } else {
+              transactionChanges.put(setting, new Change(setting, oldValue, newValue));
+            }
+          } else if (!coalesceChange(setting, newValue)) {
+            addChange(new Change(setting, oldValue, newValue));
+          }
+        });
       }
+      valueChangedHandler.accept(setting);
     };
-    ChangeListener listChangeEvent = (observable, oldValue, newValue) -> {
+    ListChange.Stamp stamp = new ListChange.Stamp();
+    ListChangeListener listChangeEvent = change -> {
+      int stampBefore = stamp.modified();
       if (isListenerActive()) {
-        LOGGER.trace("List Change detected: " + oldValue);
-        addChange(new Change(setting, (ObservableList) oldValue, (ObservableList) newValue));
+        LOGGER.trace("List Change detected: " + change);
+        ListChange listChange = new ListChange(setting, change, stamp, stampBefore);
+        recordWithFollowUps(setting, () -> {
+          if (transactionChanges != null) {
+            Change recorded = transactionChanges.get(setting);
+            if (recorded instanceof ListChange) {
+              ((ListChange) recorded).append(listChange);
+            } else {
+              transactionChanges.put(setting, listChange);
+            }
+          } else {
+            addChange(listChange);
+          }
+        });
       }
+      valueChangedHandler.accept(setting);
     };
 
     if (setting.valueProperty() instanceof SimpleListProperty) {
-      setting.valueProperty().addListener(listChangeEvent);
+      ((SimpleListProperty) setting.valueProperty()).addListener(listChangeEvent);
     } else {
       setting.valueProperty().addListener(changeEvent);
     }
   }
 
+  /**
+   * Records a change of {@code setting} and lets the follow-up handler react to it, so the changes
+   * of the handler are recorded together with the change, as one transaction.
+   * Changes of settings without follow-ups are recorded directly, without a transaction.
+   */
+  private void recordWithFollowUps(Setting setting, Runnable record) {
+    if (followUpHandler == null || !hasFollowUps.test(setting)) {
+      record.run();
+    } else if (transactionChanges != null) {
+      record.run();
+      followUpHandler.accept(setting);
+    } else {
+      doAsTransaction(() -> {
+        record.run();
+        followUpHandler.accept(setting);
+      });
+    }
+  }
+
+  /**
+   * Sets a handler which is called every time a change of a setting with follow-ups was recorded,
+   * with the setting. All changes the handler makes to other settings are recorded together with
+   * the change, so they are undone and redone at once. This is used to update values which are
+   * derived from the setting.
+   *
+   * @param hasFollowUps    whether the handler needs to be called after a change of a setting
+   * @param followUpHandler the handler, or null to only record the changes themselves
+   * @apiNote The handler isn't called for changes made by undo and redo, or while the listeners are
+   *          inactive.
+   * @implNote Only the changes of settings with follow-ups are recorded in a transaction, the
+   *           changes of all other settings are recorded as cheaply as without a handler.
+   */
+  public void setFollowUpHandler(
+      Predicate<Setting> hasFollowUps, Consumer<Setting> followUpHandler
+  ) {
+    this.hasFollowUps = hasFollowUps;
+    this.followUpHandler = followUpHandler;
+  }
+
+  /**
+   * Sets a handler which is notified every time the value of a setting with an attached change
+   * listener changes. In contrast to the recorded changes, this includes changes made by undo and
+   * redo, or while the listeners are inactive. The handler is notified after the change was
+   * recorded.
+   *
+   * @param valueChangedHandler the handler to be called with the setting whose value changed
+   */
+  public void setValueChangedHandler(Consumer<Setting> valueChangedHandler) {
+    this.valueChangedHandler = valueChangedHandler;
+  }
+
+  /**
+   * Updates the new value of the last change instead of recording a new change, if the last change
+   * was made on the same setting within the coalescing window.
+   *
+   * @return true if the change was coalesced, false if a new change needs to be added
+   */
+  private boolean coalesceChange(Setting setting, Object newValue) {
+    Change lastChange = getCoalescableChange();
+    if (lastChange == null || lastChange.isListChange()
+        || !setting.equals(lastChange.getSetting())) {
+      return false;
+    }
+    LOGGER.trace("Coalesced change");
+    lastChange.setNewValue(newValue);
+    changeCoalesced(lastChange);
+    return true;
+  }
+
+  /**
+   * Merges a compound change into the last change instead of recording a new change, if the last
+   * change was a compound change of the same settings within the coalescing window.
+   *
+   * @return true if the change was coalesced, false if a new change needs to be added
+   */
+  private boolean coalesceChange(CompoundChange change) {
+    Change lastChange = getCoalescableChange();
+    if (!haveSameSettings(lastChange, change)) {
+      return false;
+    }
+    LOGGER.trace("Coalesced compound change");
+    lastChange.merge(change);
+    changeCoalesced(lastChange);
+    return true;
+  }
+
+  /**
+   * Returns the last change, if a change made now is within its coalescing window.
+   *
+   * @return the last change, or null if a change made now can't be coalesced
+   */
+  private Change getCoalescableChange() {
+    if (coalescingWindow <= 0 || position.get() == -1 || position.get() != changes.size() - 1
+        || System.nanoTime() - lastChangeTime > TimeUnit.MILLISECONDS.toNanos(coalescingWindow)) {
+      return null;
+    }
+    return changes.get(position.get());
+  }
+
+  private void changeCoalesced(Change change) {
+    lastChangeTime = System.nanoTime();
+    if (journal != null) {
+      journal.changeUpdated(change);
+    }
+  }
+
+  /**
+   * Checks if {@code change} was made on the same setting as {@code lastChange}, or on the same
+   * settings in case of compound changes, so it can be merged into {@code lastChange}.
+   */
+  private static boolean haveSameSettings(Change lastChange, Change change) {
+    if (lastChange instanceof CompoundChange || change instanceof CompoundChange) {
+      return lastChange instanceof CompoundChange && change instanceof CompoundChange
+          && ((CompoundChange) lastChange).hasSameSettings((CompoundChange) change);
+    }
+    return lastChange != null && change.getSetting() != null
+        && change.getSetting().equals(lastChange.getSetting());
+  }
+
   private void addChange(Change change) {
     LOGGER.trace(
         String.format("addChange for: %s, before, size: %s, pos: %s, validPos: %s",
@@ -92,9 +303,10 @@ public class History {
 
     int lastIndex = changes.size() - 1;
 
-    // check if change is on same setting as the last change => compounded change
-    boolean compounded = changes.size() > 0 && position.get() != -1
-        && changes.get(position.get()).getSetting().equals(change.getSetting());
+    // check if change is on same setting(s) as the last change => compounded change
+    // when coalescing within a time window, compounding was already done if it applies
+    boolean compounded = coalescingWindow <= 0 && changes.size() > 0 && position.get() != -1
+        && haveSameSettings(changes.get(position.get()), change);
 
     // check if the last added change has the same new and old value
     boolean redundant = changes.size() > 0 && position.get() != -1
@@ -105,21 +317,30 @@ public class History {
 
     if (compounded) {
       LOGGER.trace("Compounded change");
-      if (change.isListChange()) {
-        changes.get(position.get()).setNewList(change.getNewList());
-      } else {
-        changes.get(position.get()).setNewValue(change.getNewValue());
+      Change lastChange = changes.get(position.get());
+      lastChange.merge(change);
+      if (journal != null) {
+        journal.changeUpdated(lastChange);
       }
     } else if (redundant) {
       LOGGER.trace("Redundant");
       changes.set(position.get(), change);
+      if (journal != null) {
+        journal.changeUpdated(change);
+      }
     } else if (elementExists) {
       LOGGER.trace("Element exists");
       changes.set(incrementPosition(), change);
+      if (journal != null) {
+        journal.changeAdded(change);
+      }
     } else {
       LOGGER.trace("Add new");
       changes.add(change);
       incrementPosition();
+      if (journal != null) {
+        journal.changeAdded(change);
+      }
     }
 
     lastIndex = changes.size() - 1;
@@ -133,6 +354,9 @@ public class History {
     // the last valid position is now equal to the current position
     validPosition.setValue(position.get());
 
+    evictOldestChanges();
+    lastChangeTime = System.nanoTime();
+
     LOGGER.trace(
         String.format("addChange for: %s, before, size: %s, pos: %s, validPos: %s",
             change.setting, changes.size(), position.get(), validPosition.get()
@@ -140,6 +364,155 @@ public class History {
     );
   }
 
+  /**
+   * Removes the oldest changes, as long as there are more changes than {@link #getMaxSize()}.
+   */
+  private void evictOldestChanges() {
+    int excess = changes.size() - maxSize;
+    if (maxSize <= 0 || excess <= 0) {
+      return;
+    }
+    LOGGER.trace("Evicting " + excess + " changes");
+    changes.remove(0, excess);
+    validPosition.set(Math.max(-1, validPosition.get() - excess));
+    position.set(Math.max(-1, position.get() - excess));
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Limits the amount of changes which are kept in the history.
+   * When there are more changes, the oldest ones are removed and can no longer be undone.
+   *
+   * @param maxSize the maximum amount of changes, 0 or less for no limit. Defaults to no limit.
+   */
+  public void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+    if (journal != null) {
+      journal.setMaxSize(maxSize);
+    }
+    evictOldestChanges();
+  }
+
+  public HistoryJournal getJournal() {
+    return journal;
+  }
+
+  /**
+   * Records all changes in {@code journal} from now on.
+   * Call {@link #replayJournal(Collection)} to restore the changes which were recorded before.
+   *
+   * @param journal the journal, or null to only keep the history in memory
+   */
+  public void setJournal(HistoryJournal journal) {
+    if (this.journal != null && this.journal != journal) {
+      this.journal.close();
+    }
+    this.journal = journal;
+    if (journal != null) {
+      journal.setMaxSize(maxSize);
+    }
+  }
+
+  /**
+   * Records that the values the settings have after the current change were saved, so the
+   * changes after it, which weren't saved, can be redone after the journal was replayed.
+   * Has no effect if the history is only kept in memory.
+   */
+  public void markSaved() {
+    if (journal != null) {
+      journal.saved();
+    }
+  }
+
+  /**
+   * Replaces all changes with the changes recorded in the journal.
+   * The settings are expected to have the values which were saved last, see
+   * {@link #markSaved()}. The current change is the one after which they were saved, so the
+   * changes which weren't saved can be redone.
+   *
+   * @param settings the settings whose changes should be restored
+   */
+  public void replayJournal(Collection<Setting> settings) {
+    if (journal == null) {
+      return;
+    }
+    HistoryJournal.Replay replay = journal.replay(settings);
+    changes.setAll(replay.changes);
+    validPosition.set(changes.size() - 1);
+    position.set(replay.position);
+  }
+
+  public long getCoalescingWindow() {
+    return coalescingWindow;
+  }
+
+  /**
+   * Defines how successive changes of the same setting are coalesced into one change.
+   * By default, all successive changes of the same setting are coalesced. With a coalescing
+   * window, only changes which follow each other within the window are coalesced. Changes within
+   * the window only update the last change, without creating a new change first, which is
+   * cheaper for settings which change rapidly, like sliders while being dragged.
+   *
+   * @param coalescingWindow the window in milliseconds, 0 or less to coalesce all successive
+   *                         changes of the same setting
+   */
+  public void setCoalescingWindow(long coalescingWindow) {
+    this.coalescingWindow = coalescingWindow;
+  }
+
+  /**
+   * Performs an action which changes multiple settings as one change.
+   * All changes of settings during the action are recorded as a single {@link CompoundChange},
+   * which is undone and redone at once.
+   *
+   * @param action the action which changes the settings
+   * @apiNote If this is called during another transaction, the changes become part of the outer
+   *          transaction. If the action throws an exception, the changes which were made until
+   *          then are still recorded, so they can be undone, before the exception is rethrown.
+   */
+  public void doAsTransaction(Runnable action) {
+    if (transactionChanges != null) {
+      action.run();
+      return;
+    }
+    LOGGER.trace("Begin transaction");
+    transactionChanges = new LinkedHashMap<>();
+    try {
+      action.run();
+    } finally {
+      commitTransaction();
+    }
+  }
+
+  /**
+   * Adds the changes which were made during the transaction as a single change.
+   */
+  private void commitTransaction() {
+    List<Change> recorded = transactionChanges.values().stream()
+        .filter(change -> !change.isRedundant())
+        .collect(Collectors.toList());
+    transactionChanges = null;
+    LOGGER.trace("Commit transaction with " + recorded.size() + " changes");
+    if (recorded.size() == 1) {
+      Change change = recorded.get(0);
+      if (change.isListChange() || !coalesceChange(change.getSetting(), change.getNewValue())) {
+        addChange(change);
+      }
+    } else if (recorded.size() > 1) {
+      CompoundChange change = new CompoundChange(recorded);
+      if (!coalesceChange(change)) {
+        addChange(change);
+      }
+    }
+  }
+
+  public boolean isInTransaction() {
+    return transactionChanges != null;
+  }
+
   /**
    * Enables to perform an action, without firing the attached ChangeListener of a Setting.
    * This is used by undo and redo, since those shouldn't cause a new change to be added.
@@ -167,6 +540,10 @@ public class History {
         + " validPos: " + validPosition.get());
     Change lastChange = prev();
     if (lastChange != null) {
+      // journaled first, in case the handler notified of the changed values saves them
+      if (journal != null) {
+        journal.undone();
+      }
       doWithoutListeners(lastChange.getSetting(), lastChange::undo);
       LOGGER.trace("undo, after, size: " + changes.size() + " pos: " + position.get()
           + " validPos: " + validPosition.get());
@@ -183,6 +560,17 @@ public class History {
     }
   }
 
+  /**
+   * Undos changes in the history, until {@code change} is the current change.
+   * Undos all changes, if {@code change} is null or no longer in the history.
+   *
+   * @param change the change which should be the current change afterwards
+   */
+  public void undoUntil(Change change) {
+    while (currentChange.get() != change && undo()) {
+    }
+  }
+
   /**
    * Redos a change in the history.
    *
@@ -193,6 +581,9 @@ public class History {
         + " validPos: " + validPosition.get());
     Change nextChange = next();
     if (nextChange != null) {
+      if (journal != null) {
+        journal.redone();
+      }
       doWithoutListeners(nextChange.getSetting(), nextChange::redo);
       LOGGER.trace("redo, after, size: " + changes.size() + " pos: " + position.get()
           + " validPos: " + validPosition.get());
@@ -245,6 +636,38 @@ public class History {
     changes.clear();
     position.set(-1);
     validPosition.set(-1);
+    if (journal != null) {
+      journal.cleared();
+    }
+  }
+
+  /**
+   * Removes all changes of {@code setting} from the history, for example because its value was
+   * replaced outside of the history, so they can no longer be undone or redone.
+   * Changes of other settings, also ones which were made in the same transaction, are kept.
+   *
+   * @param setting the setting whose changes should be removed
+   */
+  public void removeChanges(Setting setting) {
+    LOGGER.trace("Removing changes of: " + setting);
+    int removedUntilPosition = 0;
+    for (int i = changes.size() - 1; i >= 0; i--) {
+      Change change = changes.get(i);
+      boolean remove = change instanceof CompoundChange
+          ? ((CompoundChange) change).removeChanges(setting)
+          : setting.equals(change.getSetting());
+      if (remove) {
+        changes.remove(i);
+        if (i <= position.get()) {
+          removedUntilPosition++;
+        }
+      }
+    }
+    position.set(position.get() - removedUntilPosition);
+    validPosition.set(changes.size() - 1);
+    if (journal != null) {
+      journal.changesRemoved(setting);
+    }
   }
 
   /**
@@ -0,0 +1,698 @@
+package com.dlsc.preferencesfx.history;
+
+import static com.dlsc.preferencesfx.util.Constants.DEFAULT_JOURNAL_COMPACTION_THRESHOLD;
+
+import com.dlsc.preferencesfx.model.Setting;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the changes of a {@link History} in a file, so they can still be undone and redone
+ * after the application has been restarted.
+ *
+ * <p>The file is an append-only journal with one JSON object per line. Each line either adds a
+ * change, updates the current change, or records an undo, a redo, the clearing of the history,
+ * the removal of the changes of a setting or that the values of the settings were saved.
+ * The values of a change are stored with the storage key of their setting, so they can be
+ * assigned to the settings again when the journal is replayed.
+ *
+ * <p>Since changes which were undone and overwritten, or which exceed the maximum size of the
+ * history, are still contained in the journal, it is compacted after a number of lines have been
+ * appended. Compaction rewrites the journal with only the changes of the history.
+ *
+ * <p>Changes of lists are stored as their differences and the size of the list after the change,
+ * see {@link ListChange}.
+ *
+ * <p>When the journal is replayed, the settings have the values which were saved last, which
+ * aren't the values after the current change if the application quit without saving its last
+ * changes. The replayed history is therefore positioned at the change after which the values were
+ * saved last, so the unsaved changes can be redone.
+ *
+ * @implNote Lines are appended to a buffer and written to the file on a background thread, so
+ *           recording a change doesn't block the calling thread with I/O. Successive updates of
+ *           the current change, for example while a slider is dragged, and the saves in between
+ *           replace each other while they are buffered. The journal is read line by line, so
+ *           only the changes which are kept in the history are held in memory while replaying it.
+ *           Lines which can't be read, for example because the application crashed while writing
+ *           them, are skipped.
+ */
+public class HistoryJournal {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(HistoryJournal.class.getName());
+
+  private static final String OPERATION = "op";
+  private static final String ADD = "add";
+  private static final String UPDATE = "update";
+  private static final String UNDO = "undo";
+  private static final String REDO = "redo";
+  private static final String CLEAR = "clear";
+  private static final String REMOVE = "remove";
+  private static final String SAVE = "save";
+  private static final String ENTRIES = "entries";
+  private static final String KEY = "key";
+  private static final String OLD_VALUE = "old";
+  private static final String NEW_VALUE = "new";
+  private static final String TYPE = "type";
+  private static final String DELTAS = "deltas";
+  private static final String SIZE = "size";
+  private static final String FROM = "from";
+  private static final String REMOVED = "removed";
+  private static final String ADDED = "added";
+  private static final String PERMUTATION = "permutation";
+
+  private static final Executor WRITE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "PreferencesFX History Journal");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Path file;
+  private final Gson gson = new Gson();
+
+  private BufferedWriter writer;
+  /**
+   * The lines which were appended, but weren't written to the file yet.
+   */
+  private final List<JsonObject> pendingLines = new ArrayList<>();
+  private final AtomicBoolean writeScheduled = new AtomicBoolean();
+  private int appendedLines;
+  private int compactionThreshold = DEFAULT_JOURNAL_COMPACTION_THRESHOLD;
+  private int maxSize;
+
+  /**
+   * Creates a journal which is stored in {@code file}.
+   *
+   * @param file the file of the journal, which is created if it doesn't exist yet
+   */
+  public HistoryJournal(Path file) {
+    this.file = file;
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  public int getCompactionThreshold() {
+    return compactionThreshold;
+  }
+
+  /**
+   * Defines after how many appended lines the journal is compacted.
+   *
+   * @param compactionThreshold the amount of lines, 0 or less to never compact the journal.
+   *                            Defaults to 1000.
+   */
+  public void setCompactionThreshold(int compactionThreshold) {
+    this.compactionThreshold = compactionThreshold;
+  }
+
+  /**
+   * Sets the maximum amount of changes which are kept when the journal is replayed or compacted.
+   *
+   * @param maxSize the maximum amount of changes, 0 or less for no limit
+   */
+  void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Records that {@code change} was added after the current change, replacing all changes which
+   * were undone.
+   */
+  void changeAdded(Change change) {
+    append(ADD, change);
+  }
+
+  /**
+   * Records that the current change was replaced by {@code change}, or was updated.
+   */
+  void changeUpdated(Change change) {
+    append(UPDATE, change);
+  }
+
+  void undone() {
+    append(UNDO, null);
+  }
+
+  void redone() {
+    append(REDO, null);
+  }
+
+  void cleared() {
+    append(CLEAR, null);
+  }
+
+  /**
+   * Records that the values of the settings after the current change were saved.
+   */
+  void saved() {
+    append(SAVE, null);
+  }
+
+  /**
+   * Records that all changes of {@code setting} were removed.
+   */
+  void changesRemoved(Setting setting) {
+    JsonObject line = line(REMOVE, null);
+    line.addProperty(KEY, setting.getStorageKey());
+    append(line);
+  }
+
+  /**
+   * Reads the journal and creates the changes it contains.
+   * Values of settings which no longer exist are ignored.
+   *
+   * @param settings the settings whose changes should be restored
+   * @return the restored changes and the position of the current change
+   */
+  synchronized Replay replay(Collection<Setting> settings) {
+    writePendingLines();
+    State state = readState();
+    if (state.lines - state.records.size() > compactionThreshold && compactionThreshold > 0) {
+      compact();
+    }
+
+    Map<String, Setting> settingsByKey = new HashMap<>();
+    settings.forEach(setting -> settingsByKey.put(setting.getStorageKey(), setting));
+
+    // the settings have the values after the last save, so the changes after it are redone
+    int replayedPosition = state.getSavedPosition();
+    List<Change> changes = new ArrayList<>();
+    int position = -1;
+    for (int i = 0; i < state.records.size(); i++) {
+      Change change = toChange(state.records.get(i), settingsByKey);
+      if (change != null) {
+        changes.add(change);
+        if (i <= replayedPosition) {
+          position = changes.size() - 1;
+        }
+      }
+    }
+    for (int i = state.position; i > replayedPosition; i--) {
+      undone();
+    }
+    for (int i = state.position; i < replayedPosition; i++) {
+      redone();
+    }
+    LOGGER.trace("Replayed " + changes.size() + " changes from " + state.lines + " lines");
+    return new Replay(changes, position);
+  }
+
+  /**
+   * Rewrites the journal, so it only contains the changes which are kept in the history.
+   */
+  public synchronized void compact() {
+    writePendingLines();
+    closeWriter();
+    State state = readState();
+    Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+    int lines = 0;
+    try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+      for (JsonArray entries : state.records) {
+        writeLine(out, line(ADD, entries));
+        lines++;
+      }
+      int position = state.records.size() - 1;
+      if (state.saved) {
+        for (; position > state.savedPosition; position--) {
+          writeLine(out, line(UNDO, null));
+          lines++;
+        }
+        writeLine(out, line(SAVE, null));
+        lines++;
+      }
+      for (; position < state.position; position++) {
+        writeLine(out, line(REDO, null));
+        lines++;
+      }
+      for (; position > state.position; position--) {
+        writeLine(out, line(UNDO, null));
+        lines++;
+      }
+    } catch (IOException e) {
+      LOGGER.error("History journal could not be compacted", e);
+      return;
+    }
+    try {
+      try {
+        Files.move(compacted, file,
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      appendedLines = 0;
+      LOGGER.trace("Compacted history journal from " + state.lines + " to " + lines + " lines");
+    } catch (IOException e) {
+      LOGGER.error("Compacted history journal could not be moved to " + file, e);
+    }
+  }
+
+  /**
+   * Writes all appended lines to the file.
+   * This happens automatically on a background thread, shortly after a line was appended.
+   */
+  public synchronized void flush() {
+    if (writePendingLines() && compactionThreshold > 0 && appendedLines >= compactionThreshold) {
+      compact();
+    }
+  }
+
+  /**
+   * Writes all appended lines and closes the journal file.
+   * It is opened again when the next lines are written.
+   */
+  public synchronized void close() {
+    writePendingLines();
+    closeWriter();
+  }
+
+  private void append(String operation, Change change) {
+    append(line(operation, change == null ? null : toEntries(change)));
+  }
+
+  private void append(JsonObject line) {
+    String operation = line.get(OPERATION).getAsString();
+    synchronized (pendingLines) {
+      int last = pendingLines.size() - 1;
+      String lastOperation = getOperation(last);
+      if (SAVE.equals(operation) && SAVE.equals(lastOperation)) {
+        return;
+      }
+      if (UPDATE.equals(operation) && SAVE.equals(lastOperation)) {
+        // the values will be saved again after the update
+        last--;
+        lastOperation = getOperation(last);
+      }
+      if (UPDATE.equals(operation) && (ADD.equals(lastOperation) || UPDATE.equals(lastOperation))) {
+        // the update replaces the entries of the current change, which was buffered already
+        pendingLines.set(last, line(lastOperation, line.getAsJsonArray(ENTRIES)));
+      } else {
+        pendingLines.add(line);
+      }
+    }
+    if (writeScheduled.compareAndSet(false, true)) {
+      WRITE_EXECUTOR.execute(() -> {
+        writeScheduled.set(false);
+        flush();
+      });
+    }
+  }
+
+  /**
+   * Returns the operation of a buffered line, must be called while holding the lock of the buffer.
+   */
+  private String getOperation(int index) {
+    return index < 0 ? null : pendingLines.get(index).get(OPERATION).getAsString();
+  }
+
+  /**
+   * Writes the buffered lines to the file, must be called while holding the lock of the journal.
+   *
+   * @return true if lines were written
+   */
+  private boolean writePendingLines() {
+    List<JsonObject> lines;
+    synchronized (pendingLines) {
+      if (pendingLines.isEmpty()) {
+        return false;
+      }
+      lines = new ArrayList<>(pendingLines);
+      pendingLines.clear();
+    }
+    try {
+      if (writer == null) {
+        boolean incompleteLine = endsWithIncompleteLine();
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (incompleteLine) {
+          writer.newLine();
+        }
+      }
+      for (JsonObject line : lines) {
+        writeLine(writer, line);
+        appendedLines++;
+      }
+      writer.flush();
+    } catch (IOException e) {
+      LOGGER.error("Could not append to history journal " + file, e);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether the last line of the journal wasn't completely written, so the next line
+   * doesn't get appended to it.
+   */
+  private boolean endsWithIncompleteLine() throws IOException {
+    if (!Files.exists(file)) {
+      return false;
+    }
+    try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ)) {
+      if (channel.size() == 0) {
+        return false;
+      }
+      ByteBuffer last = ByteBuffer.allocate(1);
+      channel.position(channel.size() - 1).read(last);
+      return last.get(0) != '\n';
+    }
+  }
+
+  private void writeLine(BufferedWriter out, JsonObject line) throws IOException {
+    out.write(gson.toJson(line));
+    out.newLine();
+  }
+
+  private void closeWriter() {
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.close();
+    } catch (IOException e) {
+      LOGGER.error("Could not close history journal " + file, e);
+    }
+    writer = null;
+  }
+
+  private JsonObject line(String operation, JsonArray entries) {
+    JsonObject line = new JsonObject();
+    line.addProperty(OPERATION, operation);
+    if (entries != null) {
+      line.add(ENTRIES, entries);
+    }
+    return line;
+  }
+
+  private JsonArray toEntries(Change change) {
+    JsonArray entries = new JsonArray();
+    if (change instanceof CompoundChange) {
+      ((CompoundChange) change).getChanges().forEach(c -> entries.add(toEntry(c)));
+    } else {
+      entries.add(toEntry(change));
+    }
+    return entries;
+  }
+
+  @SuppressWarnings("unchecked")
+  private JsonObject toEntry(Change change) {
+    JsonObject entry = new JsonObject();
+    entry.addProperty(KEY, change.getSetting().getStorageKey());
+    Stream<Object> values;
+    if (change instanceof ListChange) {
+      List<ListChange.Delta<Object>> deltas = ((ListChange<Object>) change).getDeltas();
+      values = deltas.stream()
+          .flatMap(delta -> Stream.concat(delta.removed.stream(), delta.added.stream()));
+      entry.add(DELTAS, toJson(deltas));
+      entry.addProperty(SIZE, ((ListChange<Object>) change).getSize());
+    } else if (change.isListChange()) {
+      List<Object> oldList = copy(change.getOldList());
+      List<Object> newList = copy(change.getNewList());
+      values = Stream.of(oldList, newList)
+          .filter(Objects::nonNull)
+          .flatMap(List::stream);
+      entry.add(OLD_VALUE, gson.toJsonTree(oldList));
+      entry.add(NEW_VALUE, gson.toJsonTree(newList));
+    } else {
+      values = Stream.of(change.getOldValue(), change.getNewValue());
+      entry.add(OLD_VALUE, gson.toJsonTree(change.getOldValue()));
+      entry.add(NEW_VALUE, gson.toJsonTree(change.getNewValue()));
+    }
+    // the type of the values is needed to read them again, also if the setting has no value
+    values.filter(Objects::nonNull)
+        .findFirst()
+        .ifPresent(value -> entry.addProperty(TYPE, value.getClass().getName()));
+    return entry;
+  }
+
+  private JsonArray toJson(List<ListChange.Delta<Object>> deltas) {
+    JsonArray array = new JsonArray();
+    for (ListChange.Delta<Object> delta : deltas) {
+      JsonObject object = new JsonObject();
+      object.addProperty(FROM, delta.from);
+      if (delta.permutation != null) {
+        object.add(PERMUTATION, gson.toJsonTree(delta.permutation));
+      } else {
+        object.add(REMOVED, gson.toJsonTree(delta.removed));
+        object.add(ADDED, gson.toJsonTree(delta.added));
+      }
+      array.add(object);
+    }
+    return array;
+  }
+
+  private static List<Object> copy(List<?> list) {
+    return list == null ? null : new ArrayList<>(list);
+  }
+
+  /**
+   * Creates the change of a record of the journal.
+   *
+   * @param entries       the entries of the record, one for each setting which was changed
+   * @param settingsByKey the settings, mapped by their storage key
+   * @return the change, or null if none of the settings exist anymore
+   */
+  private Change toChange(JsonArray entries, Map<String, Setting> settingsByKey) {
+    List<Change> changes = new ArrayList<>();
+    for (JsonElement element : entries) {
+      JsonObject entry = element.getAsJsonObject();
+      Setting setting = settingsByKey.get(entry.get(KEY).getAsString());
+      if (setting == null) {
+        continue;
+      }
+      try {
+        changes.add(toChange(setting, entry));
+      } catch (JsonParseException e) {
+        LOGGER.warn("Journaled change of " + setting.getStorageKey() + " could not be read", e);
+      }
+    }
+    if (changes.isEmpty()) {
+      return null;
+    }
+    return changes.size() == 1 ? changes.get(0) : new CompoundChange(changes);
+  }
+
+  private Change toChange(Setting setting, JsonObject entry) {
+    Object value = setting.valueProperty().getValue();
+    Class<?> type = getType(entry, value);
+    if (entry.has(DELTAS)) {
+      int size = entry.has(SIZE) ? entry.get(SIZE).getAsInt() : -1;
+      return new ListChange<>(setting, toDeltas(entry.getAsJsonArray(DELTAS), type), size);
+    }
+    if (!(value instanceof List)) {
+      return new Change(setting,
+          gson.fromJson(entry.get(OLD_VALUE), type), gson.fromJson(entry.get(NEW_VALUE), type));
+    }
+    return new Change<>(setting,
+        toList(entry.get(OLD_VALUE), type), toList(entry.get(NEW_VALUE), type));
+  }
+
+  /**
+   * Returns the type of the values of an entry, which is recorded in the entry. Entries which
+   * were written before the type was recorded use the type of the current value of the setting.
+   */
+  private Class<?> getType(JsonObject entry, Object value) {
+    if (entry.has(TYPE)) {
+      String name = entry.get(TYPE).getAsString();
+      try {
+        return Class.forName(name);
+      } catch (ClassNotFoundException e) {
+        LOGGER.warn("Type " + name + " of journaled change could not be found", e);
+      }
+    }
+    if (value instanceof List) {
+      return ((List<?>) value).stream()
+          .filter(Objects::nonNull)
+          .findFirst()
+          .<Class<?>>map(Object::getClass)
+          .orElse(Object.class);
+    }
+    return value == null ? Object.class : value.getClass();
+  }
+
+  private List<ListChange.Delta<Object>> toDeltas(JsonArray array, Class<?> type) {
+    List<ListChange.Delta<Object>> deltas = new ArrayList<>();
+    for (JsonElement element : array) {
+      JsonObject object = element.getAsJsonObject();
+      int from = object.get(FROM).getAsInt();
+      if (object.has(PERMUTATION)) {
+        int[] permutation = gson.fromJson(object.get(PERMUTATION), int[].class);
+        deltas.add(new ListChange.Delta<>(from, permutation));
+      } else {
+        deltas.add(new ListChange.Delta<>(from,
+            toList(object.get(REMOVED), type), toList(object.get(ADDED), type)));
+      }
+    }
+    return deltas;
+  }
+
+  private ObservableList<Object> toList(JsonElement element, Class<?> type) {
+    if (element == null || element.isJsonNull()) {
+      return null;
+    }
+    ObservableList<Object> list = FXCollections.observableArrayList();
+    element.getAsJsonArray().forEach(item -> list.add(gson.fromJson(item, type)));
+    return list;
+  }
+
+  /**
+   * Reads the journal line by line and applies each operation to the state of the history.
+   */
+  private State readState() {
+    State state = new State();
+    if (!Files.exists(file)) {
+      return state;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty()) {
+          continue;
+        }
+        try {
+          state.apply(JsonParser.parseString(line).getAsJsonObject());
+        } catch (JsonParseException | IllegalStateException e) {
+          LOGGER.warn("Skipping unreadable line " + (state.lines + 1) + " of " + file, e);
+        }
+        state.lines++;
+      }
+    } catch (IOException e) {
+      LOGGER.error("History journal " + file + " could not be read", e);
+    }
+    state.evictOldestRecords();
+    return state;
+  }
+
+  /**
+   * The changes of a history, as they are recorded in the journal.
+   */
+  private class State {
+    private final List<JsonArray> records = new ArrayList<>();
+    private int position = -1;
+    /**
+     * Whether the journal records when the values were saved, which journals written by older
+     * versions don't.
+     */
+    private boolean saved;
+    private int savedPosition = -1;
+    private int lines;
+
+    /**
+     * Returns the position of the change after which the values were saved last.
+     * If the saved change was undone and replaced, the values are the closest to the ones after
+     * the change which was replaced.
+     */
+    private int getSavedPosition() {
+      return saved ? savedPosition : position;
+    }
+
+    private void apply(JsonObject line) {
+      switch (line.get(OPERATION).getAsString()) {
+        case ADD:
+          savedPosition = Math.min(savedPosition, position);
+          records.subList(position + 1, records.size()).clear();
+          records.add(line.getAsJsonArray(ENTRIES));
+          position++;
+          evictOldestRecords();
+          break;
+        case UPDATE:
+          if (position >= 0) {
+            records.set(position, line.getAsJsonArray(ENTRIES));
+          }
+          break;
+        case UNDO:
+          position = Math.max(-1, position - 1);
+          break;
+        case REDO:
+          position = Math.min(records.size() - 1, position + 1);
+          break;
+        case CLEAR:
+          records.clear();
+          position = -1;
+          savedPosition = -1;
+          break;
+        case SAVE:
+          saved = true;
+          savedPosition = position;
+          break;
+        case REMOVE:
+          remove(line.get(KEY).getAsString());
+          break;
+        default:
+          LOGGER.warn("Unknown operation in history journal: " + line);
+      }
+    }
+
+    private void remove(String key) {
+      for (int i = records.size() - 1; i >= 0; i--) {
+        JsonArray entries = records.get(i);
+        for (int j = entries.size() - 1; j >= 0; j--) {
+          if (key.equals(entries.get(j).getAsJsonObject().get(KEY).getAsString())) {
+            entries.remove(j);
+          }
+        }
+        if (entries.size() == 0) {
+          records.remove(i);
+          if (i <= position) {
+            position--;
+          }
+          if (i <= savedPosition) {
+            savedPosition--;
+          }
+        }
+      }
+    }
+
+    private void evictOldestRecords() {
+      int excess = records.size() - maxSize;
+      if (maxSize > 0 && excess > 0) {
+        records.subList(0, excess).clear();
+        position = Math.max(-1, position - excess);
+        savedPosition = Math.max(-1, savedPosition - excess);
+      }
+    }
+  }
+
+  /**
+   * The changes restored from a journal.
+   */
+  static final class Replay {
+    final List<Change> changes;
+    final int position;
+
+    private Replay(List<Change> changes, int position) {
+      this.changes = changes;
+      this.position = position;
+    }
+  }
+}
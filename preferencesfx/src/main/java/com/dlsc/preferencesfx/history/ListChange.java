@@ -0,0 +1,342 @@
+package com.dlsc.preferencesfx.history;
+
+import com.dlsc.preferencesfx.model.Setting;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Represents a change of the contents of a list, which is stored as the structural differences
+ * (additions, removals and permutations) reported by a {@link ListChangeListener}, instead of
+ * copies of the whole list before and after the change.
+ *
+ * @param <P> the type of the elements of the list
+ * @implNote Undo and redo modify the list of the setting in place, by replaying the differences in
+ *           reverse or in the same order. {@link #getOldList()} and {@link #getNewList()} only
+ *           contain the elements which were removed and added. Before replaying the differences,
+ *           the size and the {@link Stamp} of the list are compared to the ones this change
+ *           expects, so a list which was modified outside of the history is left as it is,
+ *           instead of being corrupted.
+ */
+public class ListChange<P> extends Change<P> {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(ListChange.class.getName());
+
+  private final List<Delta<P>> deltas = new ArrayList<>();
+
+  /**
+   * The size of the list after the change, -1 if unknown.
+   */
+  private int size;
+
+  /**
+   * The modification stamp of the list, null if it isn't tracked.
+   */
+  private final Stamp stamp;
+  private int stampBefore;
+  private int stampAfter;
+
+  /**
+   * Constructs a list change from the differences reported to a {@link ListChangeListener}.
+   *
+   * @param setting the setting whose list was changed
+   * @param change  the differences of the list
+   */
+  public ListChange(Setting setting, ListChangeListener.Change<? extends P> change) {
+    this(setting, change, null, 0);
+  }
+
+  /**
+   * Constructs a list change from the differences reported to a {@link ListChangeListener}, for a
+   * list whose modifications are tracked by {@code stamp}.
+   *
+   * @param setting     the setting whose list was changed
+   * @param change      the differences of the list
+   * @param stamp       the modification stamp of the list, which was already updated for the change
+   * @param stampBefore the modification stamp of the list before the change
+   */
+  ListChange(
+      Setting setting,
+      ListChangeListener.Change<? extends P> change,
+      Stamp stamp,
+      int stampBefore
+  ) {
+    super(setting, true);
+    change.reset();
+    while (change.next()) {
+      if (change.wasPermutated()) {
+        int[] permutation = new int[change.getTo() - change.getFrom()];
+        for (int i = change.getFrom(); i < change.getTo(); i++) {
+          permutation[i - change.getFrom()] = change.getPermutation(i);
+        }
+        deltas.add(new Delta<>(change.getFrom(), permutation));
+      } else if (change.wasAdded() || change.wasRemoved()) {
+        deltas.add(new Delta<>(
+            change.getFrom(),
+            new ArrayList<>(change.getRemoved()),
+            new ArrayList<>(change.getAddedSubList())
+        ));
+      }
+    }
+    size = change.getList().size();
+    this.stamp = stamp;
+    this.stampBefore = stampBefore;
+    stampAfter = stamp == null ? 0 : stamp.current;
+  }
+
+  /**
+   * Constructs a list change from differences which were recorded before, for example in a
+   * {@link HistoryJournal}.
+   *
+   * @param setting the setting whose list was changed
+   * @param deltas  the differences of the list
+   * @param size    the size of the list after the change, -1 if unknown
+   */
+  ListChange(Setting setting, List<Delta<P>> deltas, int size) {
+    super(setting, true);
+    this.deltas.addAll(deltas);
+    this.size = size;
+    stamp = null;
+  }
+
+  /**
+   * Adds the differences of {@code next} to this change, as if both were made at once.
+   *
+   * @param next the change which was made after this change
+   */
+  void append(ListChange<P> next) {
+    deltas.addAll(next.deltas);
+    size = next.size;
+    stampAfter = next.stampAfter;
+  }
+
+  @Override
+  void merge(Change<P> next) {
+    if (next instanceof ListChange) {
+      append((ListChange<P>) next);
+    } else {
+      super.merge(next);
+    }
+  }
+
+  @Override
+  public boolean isRedundant() {
+    return deltas.stream().allMatch(Delta::isNoOp);
+  }
+
+  /**
+   * Reverts the differences in the list of the setting, in reverse order.
+   */
+  @Override
+  public void undo() {
+    List<P> list = getList();
+    if (!isInState(list, size, stampAfter)) {
+      LOGGER.warn("List of " + setting.getStorageKey()
+          + " was changed outside of the history, the change can't be undone");
+      return;
+    }
+    for (int i = deltas.size() - 1; i >= 0; i--) {
+      deltas.get(i).revert(list);
+    }
+    if (stamp != null) {
+      stamp.current = stampBefore;
+    }
+  }
+
+  /**
+   * Applies the differences to the list of the setting again.
+   */
+  @Override
+  public void redo() {
+    List<P> list = getList();
+    if (!isInState(list, getSizeBefore(), stampBefore)) {
+      LOGGER.warn("List of " + setting.getStorageKey()
+          + " was changed outside of the history, the change can't be redone");
+      return;
+    }
+    deltas.forEach(delta -> delta.apply(list));
+    if (stamp != null) {
+      stamp.current = stampAfter;
+    }
+  }
+
+  /**
+   * Checks if the list has the expected size and modification stamp, as far as they are known.
+   */
+  private boolean isInState(List<P> list, int expectedSize, int expectedStamp) {
+    return list != null
+        && (size < 0 || list.size() == expectedSize)
+        && (stamp == null || stamp.current == expectedStamp);
+  }
+
+  private int getSizeBefore() {
+    int sizeBefore = size;
+    for (Delta<P> delta : deltas) {
+      sizeBefore += delta.removed.size() - delta.added.size();
+    }
+    return sizeBefore;
+  }
+
+  /**
+   * Returns the size of the list after the change.
+   *
+   * @return the size, -1 if unknown
+   */
+  int getSize() {
+    return size;
+  }
+
+  List<Delta<P>> getDeltas() {
+    return Collections.unmodifiableList(deltas);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<P> getList() {
+    return (List<P>) setting.valueProperty().getValue();
+  }
+
+  /**
+   * Returns the elements which were removed.
+   *
+   * @return the removed elements, in the order in which they were removed
+   */
+  public ObservableList<P> getRemoved() {
+    ObservableList<P> removed = FXCollections.observableArrayList();
+    deltas.forEach(delta -> removed.addAll(delta.removed));
+    return removed;
+  }
+
+  /**
+   * Returns the elements which were added.
+   *
+   * @return the added elements, in the order in which they were added
+   */
+  public ObservableList<P> getAdded() {
+    ObservableList<P> added = FXCollections.observableArrayList();
+    deltas.forEach(delta -> added.addAll(delta.added));
+    return added;
+  }
+
+  /**
+   * Returns the elements which were removed, see {@link #getRemoved()}.
+   */
+  @Override
+  public ObservableList<P> getOldList() {
+    return getRemoved();
+  }
+
+  /**
+   * Returns the elements which were added, see {@link #getAdded()}.
+   */
+  @Override
+  public ObservableList<P> getNewList() {
+    return getAdded();
+  }
+
+  /**
+   * The modification stamp of a list, which changes with every modification of the list.
+   * Undo and redo restore the stamp the list had before or after the change, so each change can
+   * cheaply check whether the list is still in the state the change left it in.
+   */
+  static final class Stamp {
+    private int last;
+    private int current;
+
+    /**
+     * Assigns a new stamp, after the list was modified.
+     *
+     * @return the stamp before the modification
+     */
+    int modified() {
+      int before = current;
+      current = ++last;
+      return before;
+    }
+  }
+
+  /**
+   * A single difference, either a replacement of a range of elements or a permutation.
+   */
+  static final class Delta<P> {
+    final int from;
+    final List<P> removed;
+    final List<P> added;
+    /**
+     * The new indices of the elements starting at {@code from}, or null for a replacement.
+     */
+    final int[] permutation;
+
+    Delta(int from, List<P> removed, List<P> added) {
+      this.from = from;
+      this.removed = removed;
+      this.added = added;
+      this.permutation = null;
+    }
+
+    Delta(int from, int[] permutation) {
+      this.from = from;
+      this.removed = Collections.emptyList();
+      this.added = Collections.emptyList();
+      this.permutation = permutation;
+    }
+
+    private boolean isNoOp() {
+      if (permutation != null) {
+        for (int i = 0; i < permutation.length; i++) {
+          if (permutation[i] != from + i) {
+            return false;
+          }
+        }
+        return true;
+      }
+      return removed.equals(added);
+    }
+
+    private void apply(List<P> list) {
+      if (permutation != null) {
+        List<P> elements = new ArrayList<>(list.subList(from, from + permutation.length));
+        List<P> permutated = new ArrayList<>(elements);
+        for (int i = 0; i < permutation.length; i++) {
+          permutated.set(permutation[i] - from, elements.get(i));
+        }
+        setRange(list, permutated);
+      } else {
+        replace(list, removed.size(), added);
+      }
+    }
+
+    private void revert(List<P> list) {
+      if (permutation != null) {
+        List<P> elements = new ArrayList<>(list.subList(from, from + permutation.length));
+        List<P> original = new ArrayList<>(elements);
+        for (int i = 0; i < permutation.length; i++) {
+          original.set(i, elements.get(permutation[i] - from));
+        }
+        setRange(list, original);
+      } else {
+        replace(list, added.size(), removed);
+      }
+    }
+
+    private void replace(List<P> list, int removedSize, List<P> elements) {
+      if (removedSize == list.size() && from == 0 && list instanceof ObservableList) {
+        ((ObservableList<P>) list).setAll(elements);
+        return;
+      }
+      list.subList(from, from + removedSize).clear();
+      list.addAll(from, elements);
+    }
+
+    private void setRange(List<P> list, List<P> elements) {
+      for (int i = 0; i < elements.size(); i++) {
+        list.set(from + i, elements.get(i));
+      }
+    }
+  }
+}
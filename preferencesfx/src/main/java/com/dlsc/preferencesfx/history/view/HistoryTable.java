@@ -1,6 +1,7 @@
 package com.dlsc.preferencesfx.history.view;
 
 import com.dlsc.preferencesfx.history.Change;
+import com.dlsc.preferencesfx.history.CompoundChange;
 import com.dlsc.preferencesfx.history.History;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyStringWrapper;
@@ -34,7 +35,9 @@ public class HistoryTable extends TableView<Change> {
 
     TableColumn<Change, String> breadcrumb = new TableColumn<>("Setting");
     breadcrumb.setCellValueFactory(
-        change -> new ReadOnlyStringWrapper(change.getValue().getSetting().toString())
+        change -> new ReadOnlyStringWrapper(change.getValue() instanceof CompoundChange
+            ? ((CompoundChange) change.getValue()).getSettings().toString()
+            : change.getValue().getSetting().toString())
     );
 
     TableColumn<Change, Object> oldValue = new TableColumn<>("Old Value");
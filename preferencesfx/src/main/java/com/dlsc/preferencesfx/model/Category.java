@@ -2,15 +2,21 @@ package com.dlsc.preferencesfx.model;
 
 import static com.dlsc.preferencesfx.util.Constants.BREADCRUMB_DELIMITER;
 
+import com.dlsc.formsfx.model.structure.Field;
 import com.dlsc.formsfx.model.util.TranslationService;
+import com.dlsc.preferencesfx.formsfx.view.renderer.PreferencesFxGroup;
 import com.dlsc.preferencesfx.util.PreferencesFxUtils;
 import com.dlsc.preferencesfx.util.Strings;
 import com.dlsc.preferencesfx.util.VisibilityProperty;
 import com.dlsc.preferencesfx.view.CategoryView;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.scene.Node;
@@ -37,6 +43,7 @@ public class Category {
   private boolean expand = false;
 
   private VisibilityProperty visibilityProperty;
+  private final List<DependencyRule> dependencyRules = new ArrayList<>();
 
   /**
    * Creates a category without groups, for top-level categories without any settings.
@@ -282,6 +289,20 @@ public class Category {
     unmarkSettings();
   }
 
+  /**
+   * Applies the marked state of all settings and groups to their rendered nodes.
+   * Is used when the view of this category is created after the search already marked some of its
+   * settings or groups.
+   */
+  public void refreshMarks() {
+    if (getGroups() != null) {
+      getGroups().forEach(Group::refreshMark);
+      PreferencesFxUtils.groupsToSettings(getGroups()).stream()
+          .filter(Setting::hasDescription)
+          .forEach(Setting::refreshMark);
+    }
+  }
+
   /**
    * This internal method is used as a callback for when the translation
    * service or its locale changes. Also applies the translation to all
@@ -299,6 +320,17 @@ public class Category {
     if (!Strings.isNullOrEmpty(descriptionKey.get())) {
       description.setValue(translationService.translate(descriptionKey.get()));
     }
+
+    // translate groups and settings as well, in case the view of this category wasn't created yet
+    if (groups != null) {
+      groups.forEach(group -> {
+        group.translate(translationService);
+        group.getSettings().stream()
+            .map(Setting::getElement)
+            .filter(element -> element instanceof Field)
+            .forEach(field -> ((Field) field).translate(translationService));
+      });
+    }
   }
 
   /**
@@ -306,7 +338,10 @@ public class Category {
    */
   public void updateGroupDescriptions() {
     if (groups != null) {
-      groups.forEach(group -> group.getPreferencesGroup().translate());
+      groups.stream()
+          .map(Group::getPreferencesGroup)
+          .filter(Objects::nonNull) // groups of categories which weren't displayed yet
+          .forEach(PreferencesFxGroup::translate);
     }
   }
 
@@ -363,4 +398,29 @@ public class Category {
   public void setVisibilityProperty(VisibilityProperty visibilityProperty) {
     this.visibilityProperty = visibilityProperty;
   }
+
+  /**
+   * Only shows this category in the navigation while {@code condition} is true.
+   * The condition is evaluated again whenever the value of one of the {@code dependencies} changes.
+   *
+   * @param condition    whether this category is visible, computed from the values of the
+   *                     dependencies
+   * @param dependencies the settings whose values are used by the condition
+   * @return this object for chaining with the fluent API
+   * @see Setting#visibleIf(BooleanSupplier, Setting...)
+   */
+  public Category visibleIf(BooleanSupplier condition, Setting... dependencies) {
+    BooleanProperty visible = new SimpleBooleanProperty(true);
+    dependencyRules.add(DependencyRule.condition(visible, condition, dependencies));
+    if (visibilityProperty == null) {
+      visibilityProperty = VisibilityProperty.of(visible);
+    } else {
+      visibilityProperty = VisibilityProperty.of(visibilityProperty.get().and(visible));
+    }
+    return this;
+  }
+
+  List<DependencyRule> getDependencyRules() {
+    return dependencyRules;
+  }
 }
@@ -0,0 +1,101 @@
+package com.dlsc.preferencesfx.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import javafx.beans.property.BooleanProperty;
+
+/**
+ * Declares that the visibility or editability of a {@link Setting}, {@link Group} or
+ * {@link Category}, or the value of a {@link Setting}, is computed from the values of other
+ * settings. The rules are evaluated by {@link SettingDependencies}.
+ */
+final class DependencyRule {
+
+  private final List<Setting> dependencies;
+  /**
+   * The setting whose value is derived by this rule, null if this rule updates a condition.
+   */
+  private final Setting target;
+  private final Supplier<?> value;
+  private final BooleanProperty condition;
+
+  private DependencyRule(
+      List<Setting> dependencies,
+      Setting target,
+      Supplier<?> value,
+      BooleanProperty condition
+  ) {
+    if (dependencies.isEmpty()) {
+      throw new IllegalArgumentException("A dependency rule needs at least one dependency");
+    }
+    this.dependencies = Collections.unmodifiableList(dependencies);
+    this.target = target;
+    this.value = value;
+    this.condition = condition;
+  }
+
+  /**
+   * Creates a rule which sets {@code property} to the result of {@code condition}.
+   */
+  static DependencyRule condition(
+      BooleanProperty property,
+      BooleanSupplier condition,
+      Setting... dependencies
+  ) {
+    return new DependencyRule(
+        Arrays.asList(dependencies), null, condition::getAsBoolean, property
+    );
+  }
+
+  /**
+   * Creates a rule which sets the value of {@code target} to the result of {@code value}.
+   */
+  static DependencyRule derivedValue(Setting target, Supplier<?> value, Setting... dependencies) {
+    return new DependencyRule(Arrays.asList(dependencies), target, value, null);
+  }
+
+  List<Setting> getDependencies() {
+    return dependencies;
+  }
+
+  Setting getTarget() {
+    return target;
+  }
+
+  boolean isDerivedValue() {
+    return target != null;
+  }
+
+  boolean dependsOnAny(Collection<Setting> settings) {
+    for (Setting dependency : dependencies) {
+      if (settings.contains(dependency)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Evaluates this rule and applies the result.
+   *
+   * @return true if the value of the target setting changed
+   */
+  @SuppressWarnings("unchecked")
+  boolean apply() {
+    if (!isDerivedValue()) {
+      condition.set((Boolean) value.get());
+      return false;
+    }
+    Object derived = value.get();
+    if (Objects.equals(derived, target.valueProperty().getValue())) {
+      return false;
+    }
+    target.valueProperty().setValue(derived);
+    return true;
+  }
+}
@@ -2,12 +2,19 @@ package com.dlsc.preferencesfx.model;
 
 import com.dlsc.formsfx.model.structure.DataField;
 import com.dlsc.formsfx.model.structure.Element;
+import com.dlsc.formsfx.model.util.TranslationService;
 import com.dlsc.preferencesfx.formsfx.view.controls.SimpleControl;
 import com.dlsc.preferencesfx.formsfx.view.renderer.PreferencesFxGroup;
+import com.dlsc.preferencesfx.formsfx.view.renderer.PreferencesFxGroupRenderer;
 import com.dlsc.preferencesfx.util.Constants;
+import com.dlsc.preferencesfx.util.Strings;
 import com.dlsc.preferencesfx.util.VisibilityProperty;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.BooleanSupplier;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.event.EventHandler;
@@ -35,6 +42,8 @@ public class Group {
   private final StringProperty breadcrumb = new SimpleStringProperty("");
 
   private VisibilityProperty visibilityProperty;
+  private TranslationService translationService;
+  private final List<DependencyRule> dependencyRules = new ArrayList<>();
 
   private Group(String description, VisibilityProperty visibilityProperty, Setting... settings) {
     this.description = description;
@@ -107,9 +116,22 @@ public class Group {
     if (preferencesGroup != null) {
       return preferencesGroup.getTitle();
     }
+    if (translationService != null && !Strings.isNullOrEmpty(description)) {
+      return translationService.translate(description);
+    }
     return description;
   }
 
+  /**
+   * Sets the {@link TranslationService} used to translate the description as long as this group
+   * hasn't been rendered yet. Once rendered, the title of its {@link PreferencesFxGroup} is used.
+   *
+   * @param translationService the translation service
+   */
+  void translate(TranslationService translationService) {
+    this.translationService = translationService;
+  }
+
   public List<Setting> getSettings() {
     return settings;
   }
@@ -130,9 +152,8 @@ public class Group {
   public void mark() {
     // ensure it's not marked yet - so a control doesn't contain the same styleClass multiple times
     if (!marked) {
-      preferencesGroup.getRenderer().addStyleClass(MARKED_STYLE_CLASS);
-      preferencesGroup.getRenderer().getTitleLabel().setOnMouseExited(unmarker);
       marked = !marked;
+      refreshMark();
     }
   }
 
@@ -144,11 +165,37 @@ public class Group {
   public void unmark() {
     // check if it's marked before removing the style class
     if (marked) {
-      preferencesGroup.getRenderer().removeStyleClass(MARKED_STYLE_CLASS);
-      preferencesGroup.getRenderer().getTitleLabel().removeEventHandler(
-          MouseEvent.MOUSE_EXITED, unmarker
-      );
       marked = !marked;
+      refreshMark();
+    }
+  }
+
+  /**
+   * Returns whether this group is currently marked by the search.
+   *
+   * @return true if this group is marked
+   */
+  public boolean isMarked() {
+    return marked;
+  }
+
+  /**
+   * Applies the marked state of this group to its rendered title.
+   * The title only exists once the group has been rendered, so this is also called when the view
+   * of its category is created after the search marked this group.
+   */
+  void refreshMark() {
+    if (preferencesGroup == null || preferencesGroup.getRenderer() == null) {
+      return;
+    }
+    PreferencesFxGroupRenderer renderer = preferencesGroup.getRenderer();
+    boolean styled = renderer.getTitleLabel().getStyleClass().contains(MARKED_STYLE_CLASS);
+    if (marked && !styled) {
+      renderer.addStyleClass(MARKED_STYLE_CLASS);
+      renderer.getTitleLabel().setOnMouseExited(unmarker);
+    } else if (!marked && styled) {
+      renderer.removeStyleClass(MARKED_STYLE_CLASS);
+      renderer.getTitleLabel().removeEventHandler(MouseEvent.MOUSE_EXITED, unmarker);
     }
   }
 
@@ -182,6 +229,35 @@ public class Group {
     this.visibilityProperty = visibilityProperty;
   }
 
+  /**
+   * Only shows this group and its settings while {@code condition} is true.
+   * The condition is evaluated again whenever the value of one of the {@code dependencies} changes.
+   *
+   * @param condition    whether this group is visible, computed from the values of the
+   *                     dependencies
+   * @param dependencies the settings whose values are used by the condition
+   * @return this object for chaining with the fluent API
+   * @see Setting#visibleIf(BooleanSupplier, Setting...)
+   */
+  public Group visibleIf(BooleanSupplier condition, Setting... dependencies) {
+    BooleanProperty visible = new SimpleBooleanProperty(true);
+    dependencyRules.add(DependencyRule.condition(visible, condition, dependencies));
+    VisibilityProperty visibility = VisibilityProperty.of(visible);
+    if (visibilityProperty == null) {
+      visibilityProperty = visibility;
+    } else {
+      visibilityProperty = VisibilityProperty.of(visibilityProperty.get().and(visible));
+    }
+    for (Setting setting : settings) {
+      setting.applyVisibility(visibility, true);
+    }
+    return this;
+  }
+
+  List<DependencyRule> getDependencyRules() {
+    return dependencyRules;
+  }
+
   private void applyVisibilityForSettings() {
     if (settings != null) {
       for (Setting setting : settings) {
@@ -7,17 +7,30 @@ import com.dlsc.formsfx.model.structure.Field;
 import com.dlsc.formsfx.model.structure.FormElement;
 import com.dlsc.formsfx.model.util.TranslationService;
 import com.dlsc.preferencesfx.PreferencesFxEvent;
+import com.dlsc.preferencesfx.history.Change;
 import com.dlsc.preferencesfx.history.History;
+import com.dlsc.preferencesfx.history.HistoryJournal;
+import com.dlsc.preferencesfx.util.AutoSaver;
 import com.dlsc.preferencesfx.util.PreferencesFxUtils;
 import com.dlsc.preferencesfx.util.SearchHandler;
 import com.dlsc.preferencesfx.util.StorageHandler;
 import com.dlsc.preferencesfx.view.PreferencesFxDialog;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
@@ -57,6 +70,7 @@ public class PreferencesFxModel {
   private boolean saveSettings = true;
   private boolean historyDebugState = false;
   private boolean oneCategoryLayout;
+  private int virtualizationThreshold = 0;
   private BooleanProperty instantPersistent = new SimpleBooleanProperty(true);
   private BooleanProperty buttonsVisible = new SimpleBooleanProperty(true);
   private DoubleProperty dividerPosition = new SimpleDoubleProperty(DEFAULT_DIVIDER_POSITION);
@@ -64,6 +78,55 @@ public class PreferencesFxModel {
   private final Map<EventType<PreferencesFxEvent>, List<EventHandler<? super PreferencesFxEvent>>>
       eventHandlers = new ConcurrentHashMap<>();
 
+  /**
+   * Settings whose value changed since they were last loaded or saved.
+   */
+  private final Set<Setting> changedSettings = new LinkedHashSet<>();
+
+  /**
+   * The values of the settings as they were last loaded or saved.
+   */
+  private final Map<Setting, Object> persistedValues = new HashMap<>();
+
+  /**
+   * Writes the changed values in the background, null if auto save is disabled.
+   */
+  private AutoSaver autoSaver;
+
+  /**
+   * The current change of the history when the settings were last saved, to only discard the
+   * changes made since then, if the history is kept in a journal.
+   */
+  private Change savedChange;
+
+  /**
+   * Whether the values of the settings have been loaded, since they only need to be loaded once.
+   */
+  private boolean settingValuesLoaded;
+
+  /**
+   * Whether the values of the settings are being loaded, in which case no values are derived.
+   */
+  private boolean loadingSettingValues;
+
+  /**
+   * Evaluates the conditions and derived values declared on the settings, groups and categories.
+   */
+  private final SettingDependencies dependencies;
+
+  /**
+   * Whether a transaction started by {@link #doAsTransaction(Runnable)} is running, whose changed
+   * settings are saved automatically at once when it ends.
+   */
+  private boolean inTransaction;
+
+  /**
+   * Storage keys of settings which were changed outside of PreferencesFX and are waiting to be
+   * reloaded on the JavaFX application thread.
+   */
+  private final Set<String> externallyChangedKeys = new LinkedHashSet<>();
+  private Executor fxExecutor = Platform::runLater;
+
   /**
    * Initializes a new model.
    *
@@ -81,6 +144,7 @@ public class PreferencesFxModel {
     this.storageHandler = storageHandler;
     this.searchHandler = searchHandler;
     this.history = history;
+    history.setValueChangedHandler(this::settingValueChanged);
     this.categories = Arrays.asList(categories);
     if (categories.length == 1 && (categories[0].getChildren() == null
             || categories[0].getChildren().isEmpty())) {
@@ -98,6 +162,43 @@ public class PreferencesFxModel {
       setDisplayedCategory(getCategories().get(DEFAULT_CATEGORY));
     }
     createBreadcrumbs(this.categories);
+    initializeKeyInvalidation();
+    // once the history records the changes, the values are derived after a change was recorded,
+    // so they are recorded with it. Values changed by undo, redo or a reload are restored as they
+    // were, without deriving values.
+    dependencies = new SettingDependencies(
+        flatCategoriesLst, () -> !settingValuesLoaded && history.isListenerActive()
+    );
+    history.setFollowUpHandler(dependencies::hasDerivedDependents, this::deriveValues);
+  }
+
+  /**
+   * Updates the values derived from {@code setting}, while its change is being recorded.
+   */
+  private void deriveValues(Setting setting) {
+    if (loadingSettingValues) {
+      return;
+    }
+    Set<Setting> derived = dependencies.deriveValues(setting);
+    if (!derived.isEmpty() && !inTransaction) {
+      // the derived values are changed during the change of the setting, which isn't saved
+      // automatically while it is recorded
+      autoSave(derived);
+    }
+  }
+
+  /**
+   * Lets the {@link StorageHandler} know about breadcrumbs which are no longer used as the key of
+   * a setting, so it can drop anything it cached for them.
+   */
+  private void initializeKeyInvalidation() {
+    PreferencesFxUtils.categoriesToSettings(flatCategoriesLst).forEach(setting ->
+        setting.breadcrumbProperty().addListener((observable, oldBreadcrumb, newBreadcrumb) -> {
+          if (!Objects.equals(oldBreadcrumb, newBreadcrumb)) {
+            storageHandler.invalidateKey(oldBreadcrumb);
+          }
+        })
+    );
   }
 
   /**
@@ -188,33 +289,296 @@ public class PreferencesFxModel {
   }
 
   /**
-   * Saves all of the values of the settings using a {@link StorageHandler}.
+   * Saves the values of the settings at once using a {@link StorageHandler}.
+   *
+   * @param onlyChanged if true, only the settings whose value differs from the value they had when
+   *                    they were last loaded or saved are saved, else all settings are saved
    */
-  private void saveSettingValues() {
-    PreferencesFxUtils.categoriesToSettings(
-        getFlatCategoriesLst()
-    ).forEach(setting -> {
-      if (setting.hasValue()) {
-        setting.saveSettingValue(storageHandler);
+  private void saveSettingValues(boolean onlyChanged) {
+    Collection<Setting> settings = onlyChanged
+        ? changedSettings : PreferencesFxUtils.categoriesToSettings(getFlatCategoriesLst());
+    Map<String, Object> values = new LinkedHashMap<>();
+    settings.forEach(setting -> {
+      if (setting.hasValue() && (!onlyChanged || isChanged(setting))) {
+        Object value = copyValue(setting);
+        values.put(setting.getStorageKey(), value);
+        persistedValues.put(setting, value);
       }
     });
+    changedSettings.clear();
+    history.markSaved();
+    LOGGER.trace("Saving " + values.size() + " setting values");
+    if (values.isEmpty()) {
+      return;
+    }
+    if (autoSaver != null) {
+      // also pass it on to the auto saver, so no pending older value can overwrite it afterwards
+      autoSaver.saveAll(values);
+    } else {
+      storageHandler.saveAll(values);
+    }
+  }
+
+  private void settingValueChanged(Setting setting) {
+    changedSettings.add(setting);
+    // during a transaction, the changed settings are saved at once when it ends
+    if (!history.isInTransaction()) {
+      autoSave(Collections.singletonList(setting));
+    }
+  }
+
+  /**
+   * Passes the changed values of {@code settings} on to the {@link AutoSaver}, if enabled.
+   */
+  private void autoSave(Collection<Setting> settings) {
+    if (autoSaver == null || !isSaveSettings()) {
+      return;
+    }
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (Setting setting : new ArrayList<>(settings)) {
+      if (setting.hasValue() && isChanged(setting)) {
+        Object value = copyValue(setting);
+        values.put(setting.getStorageKey(), value);
+        persistedValues.put(setting, value);
+        changedSettings.remove(setting);
+      }
+    }
+    if (changedSettings.isEmpty() && !history.isInTransaction()) {
+      history.markSaved();
+    }
+    if (!values.isEmpty()) {
+      autoSaver.saveAll(values);
+    }
+  }
+
+  /**
+   * Changes the values of multiple settings as one change.
+   * The changes are recorded in the {@link History} as one change, which is undone and redone at
+   * once, and are saved together if auto save is enabled.
+   *
+   * @param action the action which changes the values of the settings
+   * @see History#doAsTransaction(Runnable)
+   */
+  public void doAsTransaction(Runnable action) {
+    if (history.isInTransaction()) {
+      action.run();
+      return;
+    }
+    inTransaction = true;
+    try {
+      history.doAsTransaction(action);
+    } finally {
+      inTransaction = false;
+    }
+    autoSave(changedSettings);
+  }
+
+  private boolean isChanged(Setting setting) {
+    return !persistedValues.containsKey(setting)
+        || !Objects.equals(persistedValues.get(setting), setting.valueProperty().getValue());
+  }
+
+  /**
+   * Copies the value of a setting, so it can be compared to later values.
+   * Lists need to be copied, since they could be modified in place.
+   */
+  private Object copyValue(Setting setting) {
+    Object value = setting.valueProperty().getValue();
+    if (value instanceof List) {
+      return new ArrayList<>((List<?>) value);
+    }
+    return value;
   }
 
   /**
    * Load all of the values of the settings using a {@link StorageHandler} and attaches a listener
    * for {@link History}, so that it will be notified of changes to the setting's values.
+   * The stored values are preloaded at once using {@link StorageHandler#preloadValues()}.
+   *
+   * @apiNote The values are only loaded on the first call, later calls have no effect. Use
+   *          {@link #reloadSettingValues()} to load values which were changed in the storage.
    */
   public void loadSettingValues() {
-    PreferencesFxUtils.categoriesToSettings(flatCategoriesLst)
-        .forEach(setting -> {
-          if (setting.hasValue()) {
-            LOGGER.trace("Loading: " + setting.getBreadcrumb());
-            if (saveSettings) {
-              setting.loadSettingValue(storageHandler);
+    if (settingValuesLoaded) {
+      LOGGER.trace("Setting values are already loaded");
+      return;
+    }
+    settingValuesLoaded = true;
+    if (saveSettings) {
+      storageHandler.preloadValues();
+    }
+    loadingSettingValues = true;
+    try {
+      PreferencesFxUtils.categoriesToSettings(flatCategoriesLst)
+          .forEach(setting -> {
+            if (setting.hasValue()) {
+              LOGGER.trace("Loading: " + setting.getBreadcrumb());
+              if (saveSettings) {
+                setting.loadSettingValue(storageHandler);
+              }
+              persistedValues.put(setting, copyValue(setting));
+              changedSettings.remove(setting);
+              history.attachChangeListener(setting);
             }
-            history.attachChangeListener(setting);
-          }
-        });
+          });
+    } finally {
+      loadingSettingValues = false;
+      if (saveSettings) {
+        storageHandler.clearPreloadedValues();
+      }
+    }
+  }
+
+  /**
+   * Loads the values of the settings from the storage again, for example after the storage was
+   * changed outside of PreferencesFX. Only settings whose stored value differs from the value
+   * which was last loaded or saved are updated. The updates are not recorded in the history, and
+   * the changes of the updated settings are removed from the history, since they can no longer be
+   * undone.
+   *
+   * @return the amount of settings which were updated
+   * @apiNote Settings with unsaved changes are not updated. Their values replace the stored values
+   *          when the settings are saved. This includes the settings whose values are still being
+   *          saved automatically.
+   */
+  public int reloadSettingValues() {
+    if (!saveSettings) {
+      return 0;
+    }
+    int updated = 0;
+    storageHandler.preloadValues();
+    try {
+      for (Setting setting : PreferencesFxUtils.categoriesToSettings(flatCategoriesLst)) {
+        if (setting.hasValue() && reloadSettingValue(setting)) {
+          updated++;
+        }
+      }
+    } finally {
+      storageHandler.clearPreloadedValues();
+    }
+    LOGGER.trace("Reloaded " + updated + " setting values");
+    return updated;
+  }
+
+  private boolean reloadSettingValue(Setting setting) {
+    if (autoSaver != null && autoSaver.isSaving(setting.getStorageKey())) {
+      // the stored value is an older value of this model, which is about to be overwritten
+      LOGGER.trace("Not reloading " + setting.getBreadcrumb() + " while it is saved");
+      return false;
+    }
+    Object persisted = persistedValues.get(setting);
+    Object stored = setting.loadStoredValue(storageHandler, persisted);
+    if (Objects.equals(stored, persisted)) {
+      return false;
+    }
+    Object value = setting.valueProperty().getValue();
+    boolean unsaved = isChanged(setting) && !Objects.equals(stored, value);
+    // update the persisted value first, so the new value isn't considered as changed
+    persistedValues.put(setting, stored instanceof List ? new ArrayList<>((List) stored) : stored);
+    if (unsaved) {
+      LOGGER.debug("Keeping unsaved value of " + setting.getBreadcrumb()
+          + " instead of the stored value: " + stored);
+      changedSettings.add(setting);
+      return false;
+    }
+    if (!Objects.equals(stored, value)) {
+      history.doWithoutListeners(setting, () -> setting.valueProperty().setValue(stored));
+      removeHistory(setting);
+    }
+    changedSettings.remove(setting);
+    return true;
+  }
+
+  /**
+   * Removes the changes of {@code setting} from the history, after its value was replaced.
+   */
+  private void removeHistory(Setting setting) {
+    List<Change> changes = new ArrayList<>(history.getChanges());
+    history.removeChanges(setting);
+    if (savedChange == null || history.getChanges().contains(savedChange)) {
+      return;
+    }
+    // the last saved change was removed, the saved state is the one of the change before it
+    Change previous = null;
+    for (int i = changes.indexOf(savedChange) - 1; i >= 0 && previous == null; i--) {
+      if (history.getChanges().contains(changes.get(i))) {
+        previous = changes.get(i);
+      }
+    }
+    savedChange = previous;
+  }
+
+  /**
+   * Enables or disables updating the values of the settings when they are changed in the storage
+   * outside of PreferencesFX, for example by another instance of the application.
+   * Only the settings whose values changed are updated, like with {@link #reloadSettingValues()}.
+   *
+   * @param watch if true, external changes are loaded
+   * @return true if external changes are watched, false if they are not watched or the
+   *         {@link StorageHandler} doesn't support it
+   */
+  public boolean setWatchExternalChanges(boolean watch) {
+    if (!watch || !saveSettings) {
+      storageHandler.stopWatchingChanges();
+      return false;
+    }
+    return storageHandler.watchChanges(this::externalChange);
+  }
+
+  /**
+   * Replaces the executor which is used to reload externally changed settings on the JavaFX
+   * application thread, for testing.
+   */
+  void setFxExecutor(Executor fxExecutor) {
+    this.fxExecutor = fxExecutor;
+  }
+
+  private void externalChange(String storageKey) {
+    synchronized (externallyChangedKeys) {
+      // changes which arrive before the reload are reloaded together with it
+      boolean reloadScheduled = !externallyChangedKeys.isEmpty();
+      externallyChangedKeys.add(storageKey);
+      if (reloadScheduled) {
+        return;
+      }
+    }
+    fxExecutor.execute(this::reloadExternallyChangedSettings);
+  }
+
+  private void reloadExternallyChangedSettings() {
+    Set<String> storageKeys;
+    synchronized (externallyChangedKeys) {
+      storageKeys = new LinkedHashSet<>(externallyChangedKeys);
+      externallyChangedKeys.clear();
+    }
+    if (!settingValuesLoaded) {
+      // the values are loaded from the storage anyway
+      return;
+    }
+    int updated = 0;
+    for (Setting setting : PreferencesFxUtils.categoriesToSettings(flatCategoriesLst)) {
+      if (setting.hasValue() && storageKeys.contains(setting.getStorageKey())
+          && reloadSettingValue(setting)) {
+        updated++;
+      }
+    }
+    LOGGER.trace("Reloaded " + updated + " externally changed setting values");
+  }
+
+  /**
+   * Keeps the history in a journal, so the changes can still be undone after the application has
+   * been restarted. The changes which were recorded in the journal before are restored.
+   *
+   * @param journal the journal, or null to only keep the history in memory
+   * @implNote The history is no longer cleared when the settings are saved, instead only the
+   *           changes since the last save are undone when changes are discarded.
+   */
+  public void setHistoryJournal(HistoryJournal journal) {
+    history.setJournal(journal);
+    history.replayJournal(PreferencesFxUtils.categoriesToSettings(flatCategoriesLst));
+    // the settings have the values which were saved last, which the replayed history starts from
+    history.markSaved();
+    savedChange = history.currentChangeProperty().get();
   }
 
   public Category getDisplayedCategory() {
@@ -298,6 +662,58 @@ public class PreferencesFxModel {
     this.dividerPosition.set(dividerPosition);
   }
 
+  /**
+   * Enables or disables saving changed setting values automatically in the background.
+   * When enabled, the changed values are written by a background thread after the given delay,
+   * instead of on the JavaFX application thread when the settings are saved.
+   *
+   * @param enabled     if true, changed setting values are saved automatically
+   * @param delayMillis how many milliseconds to wait after a change before writing it, changes to
+   *                    the same setting in the meantime are only written once
+   */
+  public void setAutoSave(boolean enabled, long delayMillis) {
+    if (autoSaver != null) {
+      autoSaver.shutdown();
+      autoSaver = null;
+    }
+    if (enabled) {
+      autoSaver = new AutoSaver(storageHandler, delayMillis);
+    }
+  }
+
+  public boolean isAutoSave() {
+    return autoSaver != null;
+  }
+
+  /**
+   * Writes all setting values which are still waiting to be saved automatically and waits until
+   * they have been written. Does nothing if auto save is disabled.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit    the time unit of the timeout
+   * @return true if all pending values were written, false if the timeout elapsed or writing failed
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  public boolean flushAutoSave(long timeout, TimeUnit unit) throws InterruptedException {
+    return autoSaver == null || autoSaver.flush(timeout, unit);
+  }
+
+  public int getVirtualizationThreshold() {
+    return virtualizationThreshold;
+  }
+
+  /**
+   * Defines how many settings a category needs for its view to only show the settings which are
+   * scrolled into view, instead of rendering all of them into one form.
+   * Only affects the views of categories which are created afterwards.
+   *
+   * @param virtualizationThreshold the minimum amount of settings of a category for its view to be
+   *                                virtualized, 0 or less to never virtualize views
+   */
+  public void setVirtualizationThreshold(int virtualizationThreshold) {
+    this.virtualizationThreshold = virtualizationThreshold;
+  }
+
   public boolean isOneCategoryLayout() {
     return oneCategoryLayout;
   }
@@ -362,17 +778,35 @@ public class PreferencesFxModel {
 
   /**
    * Saves the settings, when {@link #isSaveSettings()} returns {@code true}.
+   * Only the values of settings which changed since they were last loaded or saved are written.
    */
   public void saveSettings() {
+    saveSettings(true);
+  }
+
+  /**
+   * Saves the settings, when {@link #isSaveSettings()} returns {@code true}.
+   * In contrast to {@link #saveSettings()}, the values of all settings are written, including
+   * those which didn't change.
+   */
+  public void saveAllSettings() {
+    saveSettings(false);
+  }
+
+  private void saveSettings(boolean onlyChanged) {
     LOGGER.trace("Save");
     if (isSaveSettings()) {
       if (!isInstantPersistent()) {
         applyFieldChanges();
       }
-      saveSettingValues();
+      saveSettingValues(onlyChanged);
       fireEvent(PreferencesFxEvent.preferencesSavedEvent());
     }
-    history.clear(false);
+    if (history.getJournal() == null) {
+      history.clear(false);
+    } else {
+      savedChange = history.currentChangeProperty().get();
+    }
   }
 
   /**
@@ -385,10 +819,14 @@ public class PreferencesFxModel {
     if (!isInstantPersistent()) {
       discardFieldChanges();
     } else {
-      history.clear(true);
+      if (history.getJournal() == null) {
+        history.clear(true);
+      } else {
+        history.undoUntil(savedChange);
+      }
       // save settings after undoing them
       if (saveSettings) {
-        saveSettingValues();
+        saveSettingValues(true);
       }
     }
     fireEvent(PreferencesFxEvent.preferencesNotSavedEvent());
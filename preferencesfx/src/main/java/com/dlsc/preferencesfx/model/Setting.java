@@ -20,16 +20,22 @@ import com.dlsc.preferencesfx.util.Constants;
 import com.dlsc.preferencesfx.util.VisibilityProperty;
 import com.dlsc.preferencesfx.util.StorageHandler;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.Property;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.scene.Node;
@@ -59,6 +65,7 @@ public class Setting<E extends Element, P extends Property> {
   private final EventHandler<MouseEvent> unmarker = event -> unmark();
   private final StringProperty breadcrumb = new SimpleStringProperty("");
   private String key = "";
+  private final List<DependencyRule> dependencyRules = new ArrayList<>();
 
   protected Setting(String description, E element, P value) {
     this.description = description;
@@ -606,11 +613,8 @@ public class Setting<E extends Element, P extends Property> {
     }
     // ensure it's not marked yet - so a control doesn't contain the same styleClass multiple times
     if (!marked) {
-      SimpleControl renderer = (SimpleControl) ((Field) getElement()).getRenderer();
-      Node markNode = renderer.getFieldLabel();
-      markNode.getStyleClass().add(MARKED_STYLE_CLASS);
-      markNode.setOnMouseExited(unmarker);
       marked = !marked;
+      refreshMark();
     }
   }
 
@@ -627,11 +631,38 @@ public class Setting<E extends Element, P extends Property> {
     }
     // check if it's marked before removing the style class
     if (marked) {
-      SimpleControl renderer = (SimpleControl) ((Field) getElement()).getRenderer();
-      Node markNode = renderer.getFieldLabel();
+      marked = !marked;
+      refreshMark();
+    }
+  }
+
+  /**
+   * Returns whether this setting is currently marked by the search.
+   *
+   * @return true if this setting is marked
+   */
+  public boolean isMarked() {
+    return marked;
+  }
+
+  /**
+   * Applies the marked state of this setting to its label.
+   * The label only exists once the setting has been rendered, so this is also called when the view
+   * of its category is created after the search marked this setting.
+   */
+  void refreshMark() {
+    SimpleControl renderer = (SimpleControl) ((Field) getElement()).getRenderer();
+    Node markNode = renderer.getFieldLabel();
+    if (markNode == null) {
+      return;
+    }
+    boolean styled = markNode.getStyleClass().contains(MARKED_STYLE_CLASS);
+    if (marked && !styled) {
+      markNode.getStyleClass().add(MARKED_STYLE_CLASS);
+      markNode.setOnMouseExited(unmarker);
+    } else if (!marked && styled) {
       markNode.getStyleClass().remove(MARKED_STYLE_CLASS);
       markNode.removeEventHandler(MouseEvent.MOUSE_EXITED, unmarker);
-      marked = !marked;
     }
   }
 
@@ -669,7 +700,16 @@ public class Setting<E extends Element, P extends Property> {
    * @param storageHandler the {@link StorageHandler} to use
    */
   public void saveSettingValue(StorageHandler storageHandler) {
-    storageHandler.saveObject(key.isEmpty() ? getBreadcrumb() : key, value.getValue());
+    storageHandler.saveObject(getStorageKey(), value.getValue());
+  }
+
+  /**
+   * Returns the key which is used to save and load the value of this setting.
+   *
+   * @return the custom key if one was set using {@link #customKey(String)}, else the breadcrumb
+   */
+  public String getStorageKey() {
+    return key.isEmpty() ? getBreadcrumb() : key;
   }
 
   /**
@@ -678,18 +718,32 @@ public class Setting<E extends Element, P extends Property> {
    * @param storageHandler the {@link StorageHandler} to use
    * @implNote differentiates between a {@link ListProperty}, as found in multiselection settings,
    *           and all the other property types, since those need to be handled differently by
-   *           the {@link StorageHandler}.
+   *           the {@link StorageHandler}. The list of a {@link ListProperty} is only replaced if
+   *           the loaded list has different contents.
    */
   public void loadSettingValue(StorageHandler storageHandler) {
+    Object loaded = loadStoredValue(storageHandler, value.getValue());
+    // keep the current list if nothing changed, to not replace its contents needlessly
+    if (!(value instanceof ListProperty) || !Objects.equals(value.getValue(), loaded)) {
+      value.setValue(loaded);
+    }
+  }
+
+  /**
+   * Loads the stored value of this setting using a {@link StorageHandler}, without setting it.
+   *
+   * @param storageHandler the {@link StorageHandler} to use
+   * @param defaultValue   the value to return if none is stored, a list for list settings
+   * @return the stored value, or {@code defaultValue} if none is stored
+   */
+  Object loadStoredValue(StorageHandler storageHandler, Object defaultValue) {
     if (value instanceof ListProperty) {
-      value.setValue(storageHandler.loadObservableList(
-          key.isEmpty() ? getBreadcrumb() : key, (ObservableList) value.getValue()
-      ));
-    } else {
-      value.setValue(storageHandler.loadObject(
-          key.isEmpty() ? getBreadcrumb() : key, value.getValue()
-      ));
+      ObservableList defaultList = defaultValue == null || defaultValue instanceof ObservableList
+          ? (ObservableList) defaultValue
+          : FXCollections.observableArrayList((List) defaultValue);
+      return storageHandler.loadObservableList(getStorageKey(), defaultList);
     }
+    return storageHandler.loadObject(getStorageKey(), defaultValue);
   }
 
   /**
@@ -800,4 +854,77 @@ public class Setting<E extends Element, P extends Property> {
     return applyVisibility(visibilityProperty, false);
   }
 
+  /**
+   * Only shows this setting while {@code condition} is true.
+   * The condition is evaluated again whenever the value of one of the {@code dependencies} changes.
+   *
+   * @param condition    whether this setting is visible, computed from the values of the
+   *                     dependencies
+   * @param dependencies the settings whose values are used by the condition
+   * @return this object for chaining with the fluent API
+   * @apiNote In contrast to {@link #applyVisibility(VisibilityProperty)}, the condition is
+   *          evaluated by the {@link PreferencesFxModel} in one pass with all other conditions and
+   *          derived values depending on a changed setting, after the derived values it depends
+   *          on have been updated.
+   */
+  public Setting visibleIf(BooleanSupplier condition, Setting... dependencies) {
+    BooleanProperty visible = new SimpleBooleanProperty(true);
+    dependencyRules.add(DependencyRule.condition(visible, condition, dependencies));
+    return applyVisibility(VisibilityProperty.of(visible), true);
+  }
+
+  /**
+   * Only allows to edit this setting while {@code condition} is true.
+   * The condition is evaluated again whenever the value of one of the {@code dependencies} changes.
+   *
+   * @param condition    whether this setting is editable, computed from the values of the
+   *                     dependencies
+   * @param dependencies the settings whose values are used by the condition
+   * @return this object for chaining with the fluent API
+   * @see #visibleIf(BooleanSupplier, Setting...)
+   */
+  public Setting editableIf(BooleanSupplier condition, Setting... dependencies) {
+    if (!(element instanceof Field)) {
+      throw new UnsupportedOperationException(
+          "Cannot set the editability of an Element which is not a field"
+      );
+    }
+    dependencyRules.add(
+        DependencyRule.condition(((Field) element).editableProperty(), condition, dependencies)
+    );
+    return this;
+  }
+
+  /**
+   * Sets the value of this setting to the result of {@code value} whenever the value of one of the
+   * {@code dependencies} is changed by the user.
+   * The value of this setting can still be changed by the user afterwards.
+   *
+   * @param value        the new value of this setting, computed from the values of the
+   *                     dependencies
+   * @param dependencies the settings whose values are used to compute the value
+   * @return this object for chaining with the fluent API
+   * @apiNote The value isn't derived when the values are loaded from the storage or when a change
+   *          is undone or redone, so the value which was stored or recorded is kept.
+   *          A setting may depend on settings with derived values as well, but the value of a
+   *          setting may not depend on itself, which the {@link PreferencesFxModel} checks with an
+   *          {@link IllegalStateException}.
+   */
+  public Setting deriveValue(Supplier<?> value, Setting... dependencies) {
+    if (!hasValue()) {
+      throw new UnsupportedOperationException("Cannot derive the value of a setting without value");
+    }
+    dependencyRules.add(DependencyRule.derivedValue(this, value, dependencies));
+    return this;
+  }
+
+  /**
+   * Returns the rules declared on this setting by {@link #visibleIf(BooleanSupplier, Setting...)},
+   * {@link #editableIf(BooleanSupplier, Setting...)} and
+   * {@link #deriveValue(Supplier, Setting...)}.
+   */
+  List<DependencyRule> getDependencyRules() {
+    return dependencyRules;
+  }
+
 }
@@ -0,0 +1,194 @@
+package com.dlsc.preferencesfx.model;
+
+import com.dlsc.preferencesfx.util.PreferencesFxUtils;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates the {@link DependencyRule}s declared on the settings, groups and categories of a
+ * {@link PreferencesFxModel} whenever the value of one of their dependencies changes.
+ *
+ * <p>The rules are sorted once, so that a rule deriving the value of a setting comes before all
+ * rules depending on that setting. A change is then propagated in a single pass over the sorted
+ * rules, which evaluates every affected rule exactly once, no matter how long the chain of derived
+ * values is.
+ *
+ * @implNote Changes of derived values made during the pass don't start another pass.
+ */
+final class SettingDependencies {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(SettingDependencies.class.getName());
+
+  /**
+   * The rules, sorted topologically by the settings whose values they derive.
+   */
+  private final List<DependencyRule> rules;
+  /**
+   * The settings on which the value of another setting depends.
+   */
+  private final Set<Setting> derivedDependencies;
+  private final BooleanSupplier deriveValues;
+  private boolean propagating;
+
+  /**
+   * Collects and sorts the rules of the categories, their groups and settings, and evaluates all
+   * conditions.
+   *
+   * @param categories   all categories, including their children
+   * @param deriveValues whether changes should currently update derived values, conditions are
+   *                     always updated
+   * @throws IllegalStateException if the value of a setting depends on itself
+   */
+  SettingDependencies(List<Category> categories, BooleanSupplier deriveValues) {
+    this.deriveValues = deriveValues;
+    List<DependencyRule> declared = new ArrayList<>();
+    categories.forEach(category -> declared.addAll(category.getDependencyRules()));
+    PreferencesFxUtils.categoriesToGroups(categories)
+        .forEach(group -> declared.addAll(group.getDependencyRules()));
+    PreferencesFxUtils.categoriesToSettings(categories)
+        .forEach(setting -> declared.addAll(setting.getDependencyRules()));
+    rules = sort(declared);
+    derivedDependencies = rules.stream()
+        .filter(DependencyRule::isDerivedValue)
+        .flatMap(rule -> rule.getDependencies().stream())
+        .collect(Collectors.toSet());
+
+    rules.stream()
+        .flatMap(rule -> rule.getDependencies().stream())
+        .distinct()
+        .forEach(setting -> setting.valueProperty().addListener(
+            (observable, oldValue, newValue) -> settingChanged(setting)
+        ));
+    updateConditions();
+  }
+
+  /**
+   * Sorts the rules with Kahn's algorithm, keeping the declared order where possible.
+   */
+  private static List<DependencyRule> sort(List<DependencyRule> declared) {
+    Map<DependencyRule, Integer> unsortedDependencies = new IdentityHashMap<>();
+    for (DependencyRule rule : declared) {
+      int count = 0;
+      for (DependencyRule other : declared) {
+        if (other.isDerivedValue() && rule.getDependencies().contains(other.getTarget())) {
+          count++;
+        }
+      }
+      unsortedDependencies.put(rule, count);
+    }
+
+    Deque<DependencyRule> ready = declared.stream()
+        .filter(rule -> unsortedDependencies.get(rule) == 0)
+        .collect(Collectors.toCollection(ArrayDeque::new));
+    List<DependencyRule> sorted = new ArrayList<>(declared.size());
+    while (!ready.isEmpty()) {
+      DependencyRule rule = ready.poll();
+      sorted.add(rule);
+      if (!rule.isDerivedValue()) {
+        continue;
+      }
+      for (DependencyRule other : declared) {
+        if (other.getDependencies().contains(rule.getTarget())
+            && unsortedDependencies.merge(other, -1, Integer::sum) == 0) {
+          ready.add(other);
+        }
+      }
+    }
+
+    if (sorted.size() < declared.size()) {
+      String cycle = declared.stream()
+          .filter(rule -> unsortedDependencies.get(rule) > 0 && rule.isDerivedValue())
+          .map(rule -> rule.getTarget().getDescription())
+          .distinct()
+          .collect(Collectors.joining(", "));
+      throw new IllegalStateException("Cyclic dependency between the values of: " + cycle);
+    }
+    return sorted;
+  }
+
+  /**
+   * Evaluates all rules which don't derive a value, so the conditions match the initial values.
+   */
+  private void updateConditions() {
+    rules.stream()
+        .filter(rule -> !rule.isDerivedValue())
+        .forEach(DependencyRule::apply);
+  }
+
+  private void settingChanged(Setting setting) {
+    propagate(setting, deriveValues.getAsBoolean(), true);
+  }
+
+  /**
+   * Checks if the value of another setting is derived from the value of {@code setting}.
+   *
+   * @param setting the setting to check
+   * @return true if a change of {@code setting} can change derived values
+   */
+  boolean hasDerivedDependents(Setting setting) {
+    return derivedDependencies.contains(setting);
+  }
+
+  /**
+   * Updates the values which are derived from {@code setting}, after its value was changed.
+   * Is used when the values shouldn't be derived by the listeners of the settings, so the caller
+   * controls when they are derived, for example to record them in the same change.
+   *
+   * @param setting the setting whose value was changed
+   * @return the settings whose values were derived
+   * @implNote The conditions which only depend on {@code setting} are not evaluated again, since
+   *           its listener already evaluated them.
+   */
+  Set<Setting> deriveValues(Setting setting) {
+    return propagate(setting, true, false);
+  }
+
+  /**
+   * Evaluates the rules affected by a change of {@code setting}.
+   *
+   * @param derive     whether the rules deriving values are evaluated
+   * @param conditions whether the conditions depending on {@code setting} itself are evaluated,
+   *                   the conditions depending on derived values are always evaluated
+   * @return the settings whose values were derived
+   */
+  private Set<Setting> propagate(Setting setting, boolean derive, boolean conditions) {
+    if (propagating) {
+      // derived values are updated by the pass which is already running
+      return new HashSet<>();
+    }
+    propagating = true;
+    try {
+      Set<Setting> changed = new HashSet<>();
+      changed.add(setting);
+      Set<Setting> derived = new HashSet<>();
+      int evaluated = 0;
+      for (DependencyRule rule : rules) {
+        boolean affected = rule.isDerivedValue()
+            ? derive && rule.dependsOnAny(changed)
+            : rule.dependsOnAny(conditions ? changed : derived);
+        if (affected) {
+          evaluated++;
+          if (rule.apply()) {
+            changed.add(rule.getTarget());
+            derived.add(rule.getTarget());
+          }
+        }
+      }
+      LOGGER.trace("Evaluated " + evaluated + " dependency rules after a change of "
+          + setting.getBreadcrumb());
+      return derived;
+    } finally {
+      propagating = false;
+    }
+  }
+}
@@ -0,0 +1,340 @@
+package com.dlsc.preferencesfx.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores string values by key in a single append-only log file.
+ *
+ * <p>Values are written in batches. Each batch consists of one record per changed key, followed
+ * by a commit record. Batches which were not completely written, for example because the
+ * application crashed, are ignored and truncated when the file is opened again, so a batch is
+ * either applied completely or not at all.
+ *
+ * <p>The position of the latest value of each key is kept in an index, and values are read from
+ * the file at their position when they are requested. The file isn't memory-mapped, since a
+ * mapped file can't be truncated or replaced on all platforms as long as the mapping exists.
+ * When the log is more than twice as large as the current values and exceeds
+ * {@link #MIN_COMPACTION_SIZE}, it is compacted by writing the current values to a new file, which
+ * atomically replaces the log.
+ *
+ * <p>All methods are synchronized, so the store can be written from a background thread.
+ */
+class AppendOnlyStore {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(AppendOnlyStore.class.getName());
+
+  static final long MIN_COMPACTION_SIZE = 64 * 1024;
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+  private static final byte COMMIT = 3;
+
+  private final Path file;
+  private FileChannel channel;
+
+  /**
+   * The position and length of the latest value of each key.
+   */
+  private final Map<String, Entry> index = new HashMap<>();
+
+  /**
+   * The size of the log, and the size the records of the current values would take up.
+   */
+  private long logSize;
+  private long liveSize;
+
+  /**
+   * Opens the store, creating the file if it doesn't exist yet.
+   *
+   * @param file the file of the log
+   * @throws UncheckedIOException if the file can't be opened or read
+   */
+  AppendOnlyStore(Path file) {
+    this.file = file;
+    try {
+      open();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open " + file, e);
+    }
+  }
+
+  /**
+   * Returns the latest value of {@code key}.
+   *
+   * @param key the key of the value
+   * @return the value, or null if there is none
+   */
+  synchronized String get(String key) {
+    Entry entry = index.get(key);
+    if (entry == null) {
+      return null;
+    }
+    ByteBuffer value = ByteBuffer.allocate(entry.length);
+    try {
+      long position = entry.position;
+      while (value.hasRemaining()) {
+        int read = channel.read(value, position);
+        if (read < 0) {
+          throw new EOFException("Value of " + key + " exceeds the end of " + file);
+        }
+        position += read;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + key + " from " + file, e);
+    }
+    return new String(value.array(), StandardCharsets.UTF_8);
+  }
+
+  synchronized boolean contains(String key) {
+    return index.containsKey(key);
+  }
+
+  /**
+   * Returns the latest values of all keys.
+   *
+   * @return the values, mapped by their key
+   */
+  synchronized Map<String, String> getAll() {
+    Map<String, String> values = new LinkedHashMap<>();
+    index.keySet().forEach(key -> values.put(key, get(key)));
+    return values;
+  }
+
+  /**
+   * Writes all values as one batch, which is applied completely or not at all.
+   *
+   * @param values the values to write, mapped by their key. A null value removes the key.
+   */
+  synchronized void commit(Map<String, String> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Map<String, Entry> entries = new HashMap<>();
+    try {
+      DataOutputStream out = new DataOutputStream(bytes);
+      for (Map.Entry<String, String> value : values.entrySet()) {
+        byte[] key = value.getKey().getBytes(StandardCharsets.UTF_8);
+        out.writeByte(value.getValue() == null ? REMOVE : PUT);
+        out.writeInt(key.length);
+        out.write(key);
+        if (value.getValue() != null) {
+          byte[] data = value.getValue().getBytes(StandardCharsets.UTF_8);
+          out.writeInt(data.length);
+          long position = logSize + out.size();
+          out.write(data);
+          entries.put(value.getKey(),
+              new Entry(position, data.length, recordSize(key.length, data.length)));
+        } else {
+          entries.put(value.getKey(), null);
+        }
+      }
+      out.writeByte(COMMIT);
+
+      ByteBuffer batch = ByteBuffer.wrap(bytes.toByteArray());
+      long position = logSize;
+      while (batch.hasRemaining()) {
+        position += channel.write(batch, position);
+      }
+      channel.force(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write to " + file, e);
+    }
+
+    logSize += bytes.size();
+    entries.forEach(this::apply);
+    if (logSize > MIN_COMPACTION_SIZE && logSize > 2 * liveSize) {
+      compact();
+    }
+  }
+
+  /**
+   * Removes all values.
+   */
+  synchronized void clear() {
+    try {
+      channel.truncate(0);
+      channel.force(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not clear " + file, e);
+    }
+    index.clear();
+    logSize = 0;
+    liveSize = 0;
+  }
+
+  /**
+   * Rewrites the log, so it only contains the current values.
+   */
+  synchronized void compact() {
+    Map<String, String> values = getAll();
+    Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.deleteIfExists(compacted);
+      try (FileChannel out = FileChannel.open(compacted,
+          StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        for (Map.Entry<String, String> value : values.entrySet()) {
+          byte[] key = value.getKey().getBytes(StandardCharsets.UTF_8);
+          byte[] content = value.getValue().getBytes(StandardCharsets.UTF_8);
+          data.writeByte(PUT);
+          data.writeInt(key.length);
+          data.write(key);
+          data.writeInt(content.length);
+          data.write(content);
+        }
+        data.writeByte(COMMIT);
+        ByteBuffer batch = ByteBuffer.wrap(bytes.toByteArray());
+        while (batch.hasRemaining()) {
+          out.write(batch);
+        }
+        out.force(false);
+      }
+      close();
+      try {
+        Files.move(compacted, file,
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      open();
+      LOGGER.trace("Compacted " + file + " to " + logSize + " bytes");
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not compact " + file, e);
+    }
+  }
+
+  /**
+   * Closes the file. The store can't be used anymore afterwards.
+   */
+  synchronized void close() {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOGGER.error("Could not close " + file, e);
+    }
+    channel = null;
+  }
+
+  long getLogSize() {
+    return logSize;
+  }
+
+  /**
+   * Opens the file and builds the index of the committed values.
+   */
+  private void open() throws IOException {
+    channel = FileChannel.open(file,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    index.clear();
+    liveSize = 0;
+    logSize = channel.size();
+
+    Map<String, Entry> pending = new HashMap<>();
+    long committed = 0;
+    // read with a separate stream, since closing a stream of the channel would close it as well
+    try (DataInputStream log = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file)))) {
+      long position = 0;
+      while (position < logSize) {
+        byte type = log.readByte();
+        position++;
+        if (type == COMMIT) {
+          pending.forEach(this::apply);
+          pending.clear();
+          committed = position;
+          continue;
+        }
+        if (type != PUT && type != REMOVE) {
+          break;
+        }
+        byte[] key = new byte[log.readInt()];
+        log.readFully(key);
+        position += 4 + key.length;
+        String name = new String(key, StandardCharsets.UTF_8);
+        if (type == PUT) {
+          int length = log.readInt();
+          position += 4;
+          if (length < 0 || position + length > logSize) {
+            break;
+          }
+          skip(log, length);
+          pending.put(name, new Entry(position, length, recordSize(key.length, length)));
+          position += length;
+        } else {
+          pending.put(name, null);
+        }
+      }
+    } catch (EOFException | RuntimeException e) {
+      // a record which wasn't completely written, which is handled below
+      LOGGER.trace("Incomplete record in " + file, e);
+    }
+
+    if (committed < logSize) {
+      LOGGER.warn("Discarding " + (logSize - committed) + " uncommitted bytes of " + file);
+      channel.truncate(committed);
+      logSize = committed;
+    }
+  }
+
+  private void apply(String key, Entry entry) {
+    Entry previous = entry == null ? index.remove(key) : index.put(key, entry);
+    if (previous != null) {
+      liveSize -= previous.recordSize;
+    }
+    if (entry != null) {
+      liveSize += entry.recordSize;
+    }
+  }
+
+  private static void skip(DataInputStream in, int length) throws IOException {
+    int remaining = length;
+    while (remaining > 0) {
+      int skipped = in.skipBytes(remaining);
+      if (skipped <= 0) {
+        throw new EOFException();
+      }
+      remaining -= skipped;
+    }
+  }
+
+  private static int recordSize(int keyLength, int valueLength) {
+    return 1 + 4 + keyLength + 4 + valueLength;
+  }
+
+  private static final class Entry {
+    private final long position;
+    private final int length;
+    private final int recordSize;
+
+    private Entry(long position, int length, int recordSize) {
+      this.position = position;
+      this.length = length;
+      this.recordSize = recordSize;
+    }
+  }
+}
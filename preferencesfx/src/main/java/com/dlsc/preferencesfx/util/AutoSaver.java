@@ -0,0 +1,143 @@
+package com.dlsc.preferencesfx.util;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes values to a {@link StorageHandler} on a single background thread.
+ *
+ * <p>Values are queued by their key and written together once the debounce delay after the first
+ * queued value has passed. If the same key is queued multiple times in between, only the last
+ * value is written.
+ *
+ * @implNote The values are serialized on the background thread, so they must not be modified
+ *     after they have been queued. Since the {@link StorageHandler} is called from the background
+ *     thread, it needs to be thread-safe.
+ */
+public class AutoSaver {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(AutoSaver.class.getName());
+
+  private final StorageHandler storageHandler;
+  private final long delayMillis;
+  private final ScheduledExecutorService executor;
+
+  /**
+   * Values which are queued to be written, mapped by their key.
+   */
+  private final Map<String, Object> pendingValues = new LinkedHashMap<>();
+  /**
+   * Keys of the values which are currently being written.
+   */
+  private final Set<String> writingKeys = new HashSet<>();
+  private ScheduledFuture<?> scheduledWrite;
+
+  /**
+   * Initializes a new auto saver.
+   *
+   * @param storageHandler the {@link StorageHandler} to write the values to
+   * @param delayMillis    how many milliseconds to wait after a value was queued before writing it
+   */
+  public AutoSaver(StorageHandler storageHandler, long delayMillis) {
+    this.storageHandler = storageHandler;
+    this.delayMillis = Math.max(0, delayMillis);
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "PreferencesFX AutoSaver");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Queues values to be written in the background.
+   *
+   * @param values the values to write, mapped by the key used to save them
+   */
+  public synchronized void saveAll(Map<String, Object> values) {
+    pendingValues.putAll(values);
+    if (scheduledWrite == null) {
+      scheduledWrite = executor.schedule(() -> write(), delayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Checks if a value of {@code key} is queued or currently being written.
+   * While this is the case, the stored value is outdated and will be overwritten, so changes of
+   * the stored value, like the ones caused by earlier writes of this auto saver, can be ignored.
+   *
+   * @param key the key of the value
+   * @return true if a value of the key wasn't completely written yet
+   */
+  public synchronized boolean isSaving(String key) {
+    return pendingValues.containsKey(key) || writingKeys.contains(key);
+  }
+
+  /**
+   * Writes all queued values immediately and waits until they have been written.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit    the time unit of the timeout
+   * @return true if all values which were queued before were written, false if the timeout elapsed
+   *     or writing the values failed
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+    Future<Boolean> write = executor.submit(() -> write());
+    try {
+      return write.get(timeout, unit);
+    } catch (TimeoutException e) {
+      return false;
+    } catch (ExecutionException e) {
+      LOGGER.error("Values could not be written", e.getCause());
+      return false;
+    }
+  }
+
+  /**
+   * Stops the background thread after all queued values have been written.
+   * No more values can be queued afterwards.
+   */
+  public void shutdown() {
+    executor.execute(() -> write());
+    executor.shutdown();
+  }
+
+  private boolean write() {
+    Map<String, Object> values;
+    synchronized (this) {
+      if (scheduledWrite != null) {
+        scheduledWrite.cancel(false);
+        scheduledWrite = null;
+      }
+      values = new LinkedHashMap<>(pendingValues);
+      pendingValues.clear();
+      writingKeys.addAll(values.keySet());
+    }
+    if (values.isEmpty()) {
+      return true;
+    }
+    LOGGER.trace("Writing " + values.size() + " values");
+    try {
+      storageHandler.saveAll(values);
+      return true;
+    } catch (RuntimeException e) {
+      LOGGER.error("Values could not be written", e);
+      return false;
+    } finally {
+      synchronized (this) {
+        writingKeys.removeAll(values.keySet());
+      }
+    }
+  }
+}
@@ -0,0 +1,419 @@
+package com.dlsc.preferencesfx.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The compact binary encoding used by {@link BinaryStorageHandler}.
+ *
+ * <p>Each value starts with a tag byte, followed by its content:
+ * <ul>
+ *   <li>integral numbers are stored as zig-zag encoded varints, this includes doubles and floats
+ *   without a fraction</li>
+ *   <li>other doubles and floats are stored with 8 and 4 bytes</li>
+ *   <li>strings and enum constants are stored as the varint length of their UTF-8 bytes, followed
+ *   by the bytes</li>
+ *   <li>lists are stored as their varint size, followed by their elements. If all elements are
+ *   numbers or strings of the same tag, the tag is only stored once for the whole list</li>
+ *   <li>all other objects are stored as their JSON created by Gson, like a string</li>
+ * </ul>
+ *
+ * <p>Values are decoded into the requested type, so a number can be read as any numeric type.
+ * Like with Gson, numbers are read as {@link Double} if the requested type is {@link Object}.
+ */
+final class BinaryFormat {
+
+  private static final byte NULL = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+  private static final byte INTEGER = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte FLOAT = 5;
+  private static final byte STRING = 6;
+  private static final byte LIST = 7;
+  private static final byte PACKED_LIST = 8;
+  private static final byte JSON = 9;
+
+  /**
+   * Doubles with an absolute value above this may not be exactly representable as a long.
+   */
+  private static final double MAX_INTEGRAL = 1L << 53;
+
+  private final Gson gson;
+
+  BinaryFormat(Gson gson) {
+    this.gson = gson;
+  }
+
+  /**
+   * Encodes a value, which may be null.
+   */
+  byte[] encode(Object value) {
+    Output output = new Output();
+    write(output, value);
+    return output.toByteArray();
+  }
+
+  /**
+   * Encodes a value which was stored as JSON by Gson, without knowing its type.
+   */
+  byte[] encode(JsonElement json) {
+    Output output = new Output();
+    write(output, json);
+    return output.toByteArray();
+  }
+
+  <T> T decode(byte[] bytes, Class<T> type) {
+    return read(ByteBuffer.wrap(bytes), type);
+  }
+
+  <T> List<T> decodeList(byte[] bytes, Class<T> type) {
+    ByteBuffer input = ByteBuffer.wrap(bytes);
+    byte tag = input.get();
+    switch (tag) {
+      case NULL:
+        return Collections.emptyList();
+      case LIST:
+        return readList(input, type);
+      case PACKED_LIST:
+        return readPackedList(input, type);
+      default:
+        throw new IllegalArgumentException("Not a list: " + tag);
+    }
+  }
+
+  private void write(Output output, Object value) {
+    byte tag = tagOf(value);
+    if (tag == LIST) {
+      writeList(output, (List<?>) value);
+      return;
+    }
+    output.write(tag);
+    if (tag == JSON) {
+      output.writeString(gson.toJson(value));
+    } else {
+      writeContent(output, tag, value);
+    }
+  }
+
+  private void writeList(Output output, List<?> list) {
+    byte elementTag = packedTagOf(list);
+    if (elementTag != NULL) {
+      output.write(PACKED_LIST);
+      output.writeVarint(list.size());
+      output.write(elementTag);
+      for (Object element : list) {
+        writeContent(output, elementTag, element);
+      }
+      return;
+    }
+    output.write(LIST);
+    output.writeVarint(list.size());
+    for (Object element : list) {
+      write(output, element);
+    }
+  }
+
+  /**
+   * Writes the content of a value without a tag, for all tags which don't contain other values.
+   */
+  private static void writeContent(Output output, byte tag, Object value) {
+    switch (tag) {
+      case INTEGER:
+        output.writeVarint(zigZag(((Number) value).longValue()));
+        break;
+      case DOUBLE:
+        output.writeLong(Double.doubleToLongBits((Double) value));
+        break;
+      case FLOAT:
+        output.writeInt(Float.floatToIntBits((Float) value));
+        break;
+      case STRING:
+        output.writeString(value instanceof Enum ? ((Enum<?>) value).name() : value.toString());
+        break;
+      default:
+        // NULL, FALSE and TRUE don't have any content
+    }
+  }
+
+  private static byte tagOf(Object value) {
+    if (value == null) {
+      return NULL;
+    }
+    if (value instanceof Boolean) {
+      return (Boolean) value ? TRUE : FALSE;
+    }
+    if (value instanceof Integer || value instanceof Long
+        || value instanceof Short || value instanceof Byte) {
+      return INTEGER;
+    }
+    if (value instanceof Double || value instanceof Float) {
+      double number = ((Number) value).doubleValue();
+      if (number == Math.rint(number) && Math.abs(number) <= MAX_INTEGRAL
+          && Double.doubleToRawLongBits(number) != Double.doubleToRawLongBits(-0d)) {
+        return INTEGER;
+      }
+      return value instanceof Double ? DOUBLE : FLOAT;
+    }
+    if (value instanceof String || value instanceof Character || value instanceof Enum) {
+      return STRING;
+    }
+    if (value instanceof List) {
+      return LIST;
+    }
+    return JSON;
+  }
+
+  /**
+   * Returns the tag shared by all elements of the list if they can be packed, NULL otherwise.
+   */
+  private static byte packedTagOf(List<?> list) {
+    if (list.isEmpty()) {
+      return NULL;
+    }
+    byte tag = tagOf(list.get(0));
+    if (tag != INTEGER && tag != DOUBLE && tag != FLOAT && tag != STRING) {
+      return NULL;
+    }
+    for (Object element : list) {
+      if (tagOf(element) != tag) {
+        return NULL;
+      }
+    }
+    return tag;
+  }
+
+  private static void write(Output output, JsonElement json) {
+    if (json.isJsonNull()) {
+      output.write(NULL);
+    } else if (json.isJsonArray()) {
+      JsonArray array = json.getAsJsonArray();
+      output.write(LIST);
+      output.writeVarint(array.size());
+      for (JsonElement element : array) {
+        write(output, element);
+      }
+    } else if (json.isJsonObject()) {
+      output.write(JSON);
+      output.writeString(json.toString());
+    } else {
+      JsonPrimitive primitive = json.getAsJsonPrimitive();
+      if (primitive.isBoolean()) {
+        output.write(primitive.getAsBoolean() ? TRUE : FALSE);
+      } else if (primitive.isNumber()) {
+        writeNumber(output, primitive.getAsString());
+      } else {
+        output.write(STRING);
+        output.writeString(primitive.getAsString());
+      }
+    }
+  }
+
+  private static void writeNumber(Output output, String number) {
+    try {
+      long integral = Long.parseLong(number);
+      output.write(INTEGER);
+      output.writeVarint(zigZag(integral));
+    } catch (NumberFormatException e) {
+      output.write(DOUBLE);
+      output.writeLong(Double.doubleToLongBits(Double.parseDouble(number)));
+    }
+  }
+
+  private <T> T read(ByteBuffer input, Class<T> type) {
+    byte tag = input.get();
+    switch (tag) {
+      case NULL:
+        return null;
+      case FALSE:
+      case TRUE:
+        return type.cast(tag == TRUE);
+      case LIST:
+        return type.cast(readList(input, Object.class));
+      case PACKED_LIST:
+        return type.cast(readPackedList(input, Object.class));
+      case JSON:
+        return gson.fromJson(readString(input), type);
+      default:
+        return readContent(input, tag, type);
+    }
+  }
+
+  private <T> List<T> readList(ByteBuffer input, Class<T> type) {
+    int size = readSize(input);
+    List<T> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(read(input, type));
+    }
+    return list;
+  }
+
+  private <T> List<T> readPackedList(ByteBuffer input, Class<T> type) {
+    int size = readSize(input);
+    byte tag = input.get();
+    List<T> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(readContent(input, tag, type));
+    }
+    return list;
+  }
+
+  /**
+   * Reads the content of a number or string and converts it to the requested type.
+   */
+  private <T> T readContent(ByteBuffer input, byte tag, Class<T> type) {
+    switch (tag) {
+      case INTEGER:
+        long integral = unZigZag(readVarint(input));
+        return type.cast(toNumber(integral, (double) integral, type));
+      case DOUBLE:
+        double number = Double.longBitsToDouble(input.getLong());
+        return type.cast(toNumber((long) number, number, type));
+      case FLOAT:
+        float fraction = Float.intBitsToFloat(input.getInt());
+        return type.cast(toNumber((long) fraction, fraction, type));
+      case STRING:
+        return toType(readString(input), type);
+      default:
+        throw new IllegalArgumentException("Unknown tag: " + tag);
+    }
+  }
+
+  private static Object toNumber(long integral, double number, Class<?> type) {
+    if (type == Integer.class) {
+      return (int) integral;
+    }
+    if (type == Long.class) {
+      return integral;
+    }
+    if (type == Float.class) {
+      return (float) number;
+    }
+    if (type == Short.class) {
+      return (short) integral;
+    }
+    if (type == Byte.class) {
+      return (byte) integral;
+    }
+    if (type == String.class) {
+      return integral == number ? Long.toString(integral) : Double.toString(number);
+    }
+    return number;
+  }
+
+  private <T> T toType(String string, Class<T> type) {
+    if (type == String.class || type == Object.class) {
+      return type.cast(string);
+    }
+    if (type.isEnum()) {
+      for (T constant : type.getEnumConstants()) {
+        if (((Enum<?>) constant).name().equals(string)) {
+          return constant;
+        }
+      }
+      // like Gson, unknown constants are read as null
+      return null;
+    }
+    return gson.fromJson(new JsonPrimitive(string), type);
+  }
+
+  private static String readString(ByteBuffer input) {
+    int length = readSize(input);
+    String string = new String(
+        input.array(), input.arrayOffset() + input.position(), length, StandardCharsets.UTF_8
+    );
+    input.position(input.position() + length);
+    return string;
+  }
+
+  private static int readSize(ByteBuffer input) {
+    long size = readVarint(input);
+    if (size > input.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    return (int) size;
+  }
+
+  private static long readVarint(ByteBuffer input) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = input.get();
+      value |= (long) (b & 0x7f) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint");
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * A growable byte array, which unlike {@link java.io.ByteArrayOutputStream} isn't synchronized.
+   */
+  private static final class Output {
+    private byte[] array = new byte[32];
+    private int size;
+
+    private void ensureCapacity(int additional) {
+      if (size + additional > array.length) {
+        array = Arrays.copyOf(array, Math.max(array.length * 2, size + additional));
+      }
+    }
+
+    void write(byte b) {
+      ensureCapacity(1);
+      array[size++] = b;
+    }
+
+    void writeVarint(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7fL) != 0) {
+        array[size++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      array[size++] = (byte) value;
+    }
+
+    void writeLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        array[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeInt(int value) {
+      ensureCapacity(4);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        array[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeString(String string) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      writeVarint(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, array, size, bytes.length);
+      size += bytes.length;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(array, size);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.dlsc.preferencesfx.util;
+
+import com.dlsc.preferencesfx.model.Setting;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles everything related to storing values of {@link Setting} using {@link Preferences} in a
+ * compact binary encoding, instead of as JSON like {@link StorageHandlerImpl}.
+ * Numbers and lists take up less space and are read without parsing text. Objects other than
+ * numbers, booleans, strings, enums and lists are still stored as JSON using Gson.
+ *
+ * <p>Values are stored as Base64 text with a {@code ~} prefix, since {@link Preferences} can only
+ * store text. Values which were stored as JSON by {@link StorageHandlerImpl} can still be read,
+ * and are converted the next time they are saved, or all at once using {@link #migrate()}.
+ *
+ * @implNote The encoding is described in {@link BinaryFormat}.
+ */
+public class BinaryStorageHandler extends PreferencesBasedStorageHandler {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(BinaryStorageHandler.class.getName());
+
+  static final String PREFIX = "~";
+
+  private final Gson gson = new Gson();
+  private final BinaryFormat format = new BinaryFormat(gson);
+
+  public BinaryStorageHandler(Class<?> saveClass) {
+    super(saveClass);
+  }
+
+  @Override
+  protected String serialize(Object object) {
+    return PREFIX + Base64.getEncoder().withoutPadding().encodeToString(format.encode(object));
+  }
+
+  @Override
+  protected <T> T deserialize(String serialized, Class<T> type) {
+    if (isBinary(serialized)) {
+      return format.decode(toBytes(serialized), type);
+    }
+    return gson.fromJson(serialized, type);
+  }
+
+  @Override
+  protected <T> List<T> deserializeList(String serialized, Class<T> type) {
+    if (isBinary(serialized)) {
+      return format.decodeList(toBytes(serialized), type);
+    }
+    final List<T> list = gson.fromJson(
+        serialized, TypeToken.getParameterized(List.class, type).getType()
+    );
+    return list == null ? Collections.emptyList() : list;
+  }
+
+  /**
+   * Converts all values of settings in the preferences which were stored as JSON by
+   * {@link StorageHandlerImpl} to the binary encoding.
+   * Values which can't be parsed as JSON are left as they are.
+   *
+   * @return the number of values which were converted
+   * @apiNote Only needs to be called once, to convert all values at once instead of converting
+   *          them one by one the next time they are saved.
+   */
+  public int migrate() {
+    Preferences preferences = getPreferences();
+    String[] keys;
+    try {
+      keys = preferences.keys();
+    } catch (BackingStoreException e) {
+      LOGGER.error("Preferences could not be read for the migration", e);
+      return 0;
+    }
+    int migrated = 0;
+    for (String key : keys) {
+      String value = preferences.get(key, null);
+      // the window state is stored under plain keys and not serialized
+      if (value == null || isBinary(value) || !isHash(key)) {
+        continue;
+      }
+      try {
+        JsonElement json = JsonParser.parseString(value);
+        preferences.put(
+            key, PREFIX + Base64.getEncoder().withoutPadding().encodeToString(format.encode(json))
+        );
+        migrated++;
+      } catch (JsonParseException e) {
+        LOGGER.warn("Value of " + key + " could not be migrated", e);
+      }
+    }
+    clearPreloadedValues();
+    try {
+      preferences.flush();
+    } catch (BackingStoreException e) {
+      LOGGER.error("Preferences could not be flushed to the backing store", e);
+    }
+    LOGGER.trace("Migrated " + migrated + " values");
+    return migrated;
+  }
+
+  private static boolean isBinary(String serialized) {
+    return serialized.startsWith(PREFIX);
+  }
+
+  private static byte[] toBytes(String serialized) {
+    return Base64.getDecoder().decode(serialized.substring(PREFIX.length()));
+  }
+
+  /**
+   * Returns whether the key was created by {@link #hash(String)}.
+   */
+  private static boolean isHash(String key) {
+    if (key.length() != 64) {
+      return false;
+    }
+    for (int i = 0; i < key.length(); i++) {
+      char c = key.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
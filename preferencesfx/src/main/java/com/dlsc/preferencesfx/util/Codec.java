@@ -0,0 +1,67 @@
+package com.dlsc.preferencesfx.util;
+
+import java.util.function.Function;
+
+/**
+ * Converts values of a type to and from the strings in which {@link StorageHandlerImpl} stores
+ * them. Can be registered using {@link StorageHandlerImpl#registerCodec(Class, Codec)} or
+ * {@link FileStorageHandler#registerCodec(Class, Codec)}, to store values of a type without Gson.
+ *
+ * <p>The strings need to be valid JSON, since values are also stored inside of JSON arrays in
+ * lists. Use {@link #of(Function, Function)} to create a codec which stores values as JSON
+ * strings.
+ *
+ * @param <T> the type of the values
+ */
+public interface Codec<T> {
+
+  /**
+   * Converts a value to JSON.
+   *
+   * @param value the value, never null
+   * @return the JSON representation of the value
+   */
+  String encode(T value);
+
+  /**
+   * Converts JSON back to a value.
+   *
+   * @param serialized the JSON representation of the value, as returned by
+   *                   {@link #encode(Object)}, never the JSON literal {@code null}
+   * @return the value
+   */
+  T decode(String serialized);
+
+  /**
+   * Creates a codec which stores values as JSON strings.
+   *
+   * @param <T>        the type of the values
+   * @param toString   converts a value to a string
+   * @param fromString converts the string back to a value
+   * @return the codec
+   */
+  static <T> Codec<T> of(Function<T, String> toString, Function<String, T> fromString) {
+    return new Codec<T>() {
+      @Override
+      public String encode(T value) {
+        return Codecs.quote(toString.apply(value));
+      }
+
+      @Override
+      public T decode(String serialized) {
+        return fromString.apply(Codecs.unquote(serialized));
+      }
+    };
+  }
+
+  /**
+   * Creates a codec which stores the constants of an enum by their name, like Gson does.
+   *
+   * @param <E>  the type of the enum
+   * @param type the class of the enum
+   * @return the codec
+   */
+  static <E extends Enum<E>> Codec<E> ofEnum(Class<E> type) {
+    return of(Enum::name, name -> Enum.valueOf(type, name));
+  }
+}
@@ -0,0 +1,253 @@
+package com.dlsc.preferencesfx.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The built-in {@link Codec} implementations and the JSON helpers they need.
+ *
+ * <p>The built-in codecs produce and read the same JSON as Gson, so values which were stored
+ * using Gson can be read by them and vice versa, but without going through Gson's reflection and
+ * type adapters.
+ */
+final class Codecs {
+
+  static final String NULL = "null";
+
+  static final Codec<String> STRING = new Codec<String>() {
+    @Override
+    public String encode(String value) {
+      return quote(value);
+    }
+
+    @Override
+    public String decode(String serialized) {
+      return unquote(serialized);
+    }
+  };
+
+  static final Codec<Boolean> BOOLEAN = new Codec<Boolean>() {
+    @Override
+    public String encode(Boolean value) {
+      return value ? "true" : "false";
+    }
+
+    @Override
+    public Boolean decode(String serialized) {
+      String text = unquote(serialized);
+      if ("true".equals(text)) {
+        return Boolean.TRUE;
+      }
+      if ("false".equals(text)) {
+        return Boolean.FALSE;
+      }
+      throw new IllegalArgumentException("Not a boolean: " + serialized);
+    }
+  };
+
+  static final Codec<Integer> INTEGER = new Codec<Integer>() {
+    @Override
+    public String encode(Integer value) {
+      return value.toString();
+    }
+
+    @Override
+    public Integer decode(String serialized) {
+      return Integer.valueOf(unquote(serialized));
+    }
+  };
+
+  static final Codec<Long> LONG = new Codec<Long>() {
+    @Override
+    public String encode(Long value) {
+      return value.toString();
+    }
+
+    @Override
+    public Long decode(String serialized) {
+      return Long.valueOf(unquote(serialized));
+    }
+  };
+
+  static final Codec<Double> DOUBLE = new Codec<Double>() {
+    @Override
+    public String encode(Double value) {
+      return value.toString();
+    }
+
+    @Override
+    public Double decode(String serialized) {
+      return Double.valueOf(unquote(serialized));
+    }
+  };
+
+  static final Codec<Float> FLOAT = new Codec<Float>() {
+    @Override
+    public String encode(Float value) {
+      return value.toString();
+    }
+
+    @Override
+    public Float decode(String serialized) {
+      return Float.valueOf(unquote(serialized));
+    }
+  };
+
+  /**
+   * The built-in codecs, mapped by the type of their values.
+   */
+  static final Map<Class<?>, Codec<?>> BUILT_IN;
+
+  static {
+    Map<Class<?>, Codec<?>> codecs = new HashMap<>();
+    codecs.put(String.class, STRING);
+    codecs.put(Boolean.class, BOOLEAN);
+    codecs.put(Integer.class, INTEGER);
+    codecs.put(Long.class, LONG);
+    codecs.put(Double.class, DOUBLE);
+    codecs.put(Float.class, FLOAT);
+    BUILT_IN = Collections.unmodifiableMap(codecs);
+  }
+
+  private Codecs() {
+  }
+
+  /**
+   * Converts a string to a JSON string literal.
+   */
+  static String quote(String value) {
+    int length = value.length();
+    int i = 0;
+    while (i < length && !needsEscaping(value.charAt(i))) {
+      i++;
+    }
+    if (i == length) {
+      return '"' + value + '"';
+    }
+    StringBuilder quoted = new StringBuilder(length + 8).append('"').append(value, 0, i);
+    for (; i < length; i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          quoted.append("\\\"");
+          break;
+        case '\\':
+          quoted.append("\\\\");
+          break;
+        case '\n':
+          quoted.append("\\n");
+          break;
+        case '\r':
+          quoted.append("\\r");
+          break;
+        case '\t':
+          quoted.append("\\t");
+          break;
+        default:
+          if (needsEscaping(c)) {
+            quoted.append(String.format("\\u%04x", (int) c));
+          } else {
+            quoted.append(c);
+          }
+      }
+    }
+    return quoted.append('"').toString();
+  }
+
+  private static boolean needsEscaping(char c) {
+    return c < 0x20 || c == '"' || c == '\\' || c == '\u2028' || c == '\u2029';
+  }
+
+  /**
+   * Converts a JSON string literal back to a string. Text which is not quoted is returned as it is,
+   * like Gson reads it in its lenient mode.
+   */
+  static String unquote(String serialized) {
+    int length = serialized.length();
+    if (length < 2 || serialized.charAt(0) != '"' || serialized.charAt(length - 1) != '"') {
+      return serialized;
+    }
+    int escape = serialized.indexOf('\\', 1);
+    if (escape < 0 || escape == length - 1) {
+      return serialized.substring(1, length - 1);
+    }
+    StringBuilder unquoted = new StringBuilder(length).append(serialized, 1, escape);
+    for (int i = escape; i < length - 1; i++) {
+      char c = serialized.charAt(i);
+      if (c != '\\') {
+        unquoted.append(c);
+        continue;
+      }
+      char escaped = serialized.charAt(++i);
+      switch (escaped) {
+        case 'n':
+          unquoted.append('\n');
+          break;
+        case 'r':
+          unquoted.append('\r');
+          break;
+        case 't':
+          unquoted.append('\t');
+          break;
+        case 'b':
+          unquoted.append('\b');
+          break;
+        case 'f':
+          unquoted.append('\f');
+          break;
+        case 'u':
+          unquoted.append((char) Integer.parseInt(serialized.substring(i + 1, i + 5), 16));
+          i += 4;
+          break;
+        default:
+          // \", \\, \/ and the lenient escape of any other character
+          unquoted.append(escaped);
+      }
+    }
+    return unquoted.toString();
+  }
+
+  /**
+   * Splits a JSON array into the JSON of its elements.
+   *
+   * @throws IllegalArgumentException if {@code serialized} is not a JSON array
+   */
+  static List<String> splitArray(String serialized) {
+    String array = serialized.trim();
+    int length = array.length();
+    if (length < 2 || array.charAt(0) != '[' || array.charAt(length - 1) != ']') {
+      throw new IllegalArgumentException("Not a JSON array: " + serialized);
+    }
+    List<String> elements = new ArrayList<>();
+    int depth = 0;
+    boolean inString = false;
+    int start = 1;
+    for (int i = 1; i < length - 1; i++) {
+      char c = array.charAt(i);
+      if (inString) {
+        if (c == '\\') {
+          i++;
+        } else if (c == '"') {
+          inString = false;
+        }
+      } else if (c == '"') {
+        inString = true;
+      } else if (c == '[' || c == '{') {
+        depth++;
+      } else if (c == ']' || c == '}') {
+        depth--;
+      } else if (c == ',' && depth == 0) {
+        elements.add(array.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    String last = array.substring(start, length - 1).trim();
+    if (!last.isEmpty() || !elements.isEmpty()) {
+      elements.add(last);
+    }
+    return elements;
+  }
+}
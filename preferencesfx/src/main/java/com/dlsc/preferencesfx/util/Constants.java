@@ -21,6 +21,10 @@ public class Constants {
 
   public static final int SCROLLBAR_SUBTRACT = 20;
 
+  public static final long DEFAULT_AUTO_SAVE_DELAY = 300;
+  public static final int DEFAULT_JOURNAL_COMPACTION_THRESHOLD = 1000;
+  public static final long DEFAULT_CHANGE_POLL_INTERVAL = 2000;
+
   public static final String WINDOW_WIDTH = "WINDOW_WIDTH";
   public static final String WINDOW_HEIGHT = "WINDOW_HEIGHT";
   public static final String WINDOW_POS_X = "WINDOW_POS_X";
@@ -0,0 +1,42 @@
+package com.dlsc.preferencesfx.util;
+
+import java.util.function.Function;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.value.ObservableValue;
+
+/**
+ * A {@link VisibilityProperty} which is derived from the value of another property, created by
+ * {@link VisibilityProperty#of(ObservableValue, Function)}.
+ *
+ * <p>The visibility is held by a single {@link BooleanProperty}, which all nodes depending on the
+ * visibility are bound to, so it is only computed once when the value of the source changes.
+ */
+final class DerivedVisibilityProperty<T> implements VisibilityProperty {
+
+  private final ObservableValue<T> source;
+  private final Function<T, Boolean> visibilityFunc;
+  private BooleanProperty visibility;
+
+  DerivedVisibilityProperty(ObservableValue<T> source, Function<T, Boolean> visibilityFunc) {
+    this.source = source;
+    this.visibilityFunc = visibilityFunc;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @implNote The property and the listener on the source are only created on the first call.
+   */
+  @Override
+  public BooleanProperty get() {
+    if (visibility == null) {
+      // set the initial value of the visibility property properly
+      visibility = new SimpleBooleanProperty(visibilityFunc.apply(source.getValue()));
+      source.addListener((observable, oldValue, newValue) ->
+          visibility.set(visibilityFunc.apply(newValue))
+      );
+    }
+    return visibility;
+  }
+}
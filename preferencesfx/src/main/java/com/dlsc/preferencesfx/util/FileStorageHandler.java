@@ -0,0 +1,219 @@
+package com.dlsc.preferencesfx.util;
+
+import static com.dlsc.preferencesfx.util.Constants.DEFAULT_DIVIDER_POSITION;
+import static com.dlsc.preferencesfx.util.Constants.DEFAULT_PREFERENCES_HEIGHT;
+import static com.dlsc.preferencesfx.util.Constants.DEFAULT_PREFERENCES_POS_X;
+import static com.dlsc.preferencesfx.util.Constants.DEFAULT_PREFERENCES_POS_Y;
+import static com.dlsc.preferencesfx.util.Constants.DEFAULT_PREFERENCES_WIDTH;
+import static com.dlsc.preferencesfx.util.Constants.DIVIDER_POSITION;
+import static com.dlsc.preferencesfx.util.Constants.SELECTED_CATEGORY;
+import static com.dlsc.preferencesfx.util.Constants.WINDOW_HEIGHT;
+import static com.dlsc.preferencesfx.util.Constants.WINDOW_POS_X;
+import static com.dlsc.preferencesfx.util.Constants.WINDOW_POS_Y;
+import static com.dlsc.preferencesfx.util.Constants.WINDOW_WIDTH;
+
+import com.dlsc.preferencesfx.model.Setting;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.prefs.Preferences;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Handles everything related to storing values of {@link Setting} in a single file, instead of
+ * using {@link Preferences}. Values are serialized the same way as in {@link StorageHandlerImpl},
+ * including the registered {@link Codec codecs}.
+ *
+ * <p>In contrast to {@link Preferences}, there is no limit on the length of keys or values, so
+ * there is no need to hash the keys and large lists can be stored. All values which are saved at
+ * once using {@link #saveAll(Map)} are committed atomically.
+ *
+ * @implNote The values are stored in an append-only log, see {@link AppendOnlyStore}. The file is
+ *           kept open until {@link #close()} is called.
+ */
+public class FileStorageHandler implements StorageHandler {
+
+  private final AppendOnlyStore store;
+  private final JsonSerializer serializer = new JsonSerializer();
+
+  /**
+   * Creates a storage handler which stores all values in {@code file}.
+   *
+   * @param file the file to store the values in, which is created if it doesn't exist yet
+   * @throws java.io.UncheckedIOException if the file can't be opened or read
+   */
+  public FileStorageHandler(Path file) {
+    store = new AppendOnlyStore(file);
+  }
+
+  /**
+   * Registers a codec, which is used to store values of {@code type} instead of Gson.
+   *
+   * @param <T>   the type of the values
+   * @param type  the exact class of the values, like {@code Color.class}
+   * @param codec the codec to use for the values, see {@link Codec#of} and {@link Codec#ofEnum}
+   * @see StorageHandlerImpl#registerCodec(Class, Codec)
+   */
+  public <T> void registerCodec(Class<T> type, Codec<T> codec) {
+    serializer.registerCodec(type, codec);
+  }
+
+  @Override
+  public void saveSelectedCategory(String breadcrumb) {
+    saveObject(SELECTED_CATEGORY, breadcrumb);
+  }
+
+  @Override
+  public String loadSelectedCategory() {
+    return loadObject(SELECTED_CATEGORY, String.class, null);
+  }
+
+  @Override
+  public void saveDividerPosition(double dividerPosition) {
+    saveObject(DIVIDER_POSITION, dividerPosition);
+  }
+
+  @Override
+  public double loadDividerPosition() {
+    return loadObject(DIVIDER_POSITION, Double.class, DEFAULT_DIVIDER_POSITION);
+  }
+
+  @Override
+  public void saveWindowWidth(double windowWidth) {
+    saveObject(WINDOW_WIDTH, windowWidth);
+  }
+
+  @Override
+  public double loadWindowWidth() {
+    return loadObject(WINDOW_WIDTH, Double.class, (double) DEFAULT_PREFERENCES_WIDTH);
+  }
+
+  @Override
+  public void saveWindowHeight(double windowHeight) {
+    saveObject(WINDOW_HEIGHT, windowHeight);
+  }
+
+  @Override
+  public double loadWindowHeight() {
+    return loadObject(WINDOW_HEIGHT, Double.class, (double) DEFAULT_PREFERENCES_HEIGHT);
+  }
+
+  @Override
+  public void saveWindowPosX(double windowPosX) {
+    saveObject(WINDOW_POS_X, windowPosX);
+  }
+
+  @Override
+  public double loadWindowPosX() {
+    return loadObject(WINDOW_POS_X, Double.class, (double) DEFAULT_PREFERENCES_POS_X);
+  }
+
+  @Override
+  public void saveWindowPosY(double windowPosY) {
+    saveObject(WINDOW_POS_Y, windowPosY);
+  }
+
+  @Override
+  public double loadWindowPosY() {
+    return loadObject(WINDOW_POS_Y, Double.class, (double) DEFAULT_PREFERENCES_POS_Y);
+  }
+
+  @Override
+  public void saveObject(String breadcrumb, Object object) {
+    store.commit(Collections.singletonMap(breadcrumb, serializer.serialize(object)));
+  }
+
+  /**
+   * Serializes all given Objects and saves them to the file in one batch, which is either written
+   * completely or not at all.
+   *
+   * @param objects the Objects which will be saved, mapped by the key used to save them
+   */
+  @Override
+  public void saveAll(Map<String, Object> objects) {
+    Map<String, String> values = new LinkedHashMap<>();
+    objects.forEach((breadcrumb, object) -> values.put(breadcrumb, serializer.serialize(object)));
+    store.commit(values);
+  }
+
+  @Override
+  public Object loadObject(String breadcrumb, Object defaultObject) {
+    String serialized = store.get(breadcrumb);
+    if (serialized == null) {
+      return defaultObject;
+    }
+    Class<?> type = defaultObject == null ? Object.class : defaultObject.getClass();
+    return serializer.deserialize(serialized, type);
+  }
+
+  @Override
+  public <T> T loadObject(String breadcrumb, Class<T> type, T defaultObject) {
+    String serialized = store.get(breadcrumb);
+    return serialized == null ? defaultObject : serializer.deserialize(serialized, type);
+  }
+
+  @Override
+  public ObservableList loadObservableList(
+      String breadcrumb,
+      ObservableList defaultObservableList
+  ) {
+    return loadObservableList(
+        breadcrumb, getTypeFromList(defaultObservableList), defaultObservableList
+    );
+  }
+
+  @Override
+  public <T> ObservableList<T> loadObservableList(
+      String breadcrumb,
+      Class<T> type,
+      ObservableList<T> defaultObservableList
+  ) {
+    String serialized = store.get(breadcrumb);
+    if (serialized == null) {
+      return defaultObservableList == null
+          ? FXCollections.observableArrayList()
+          : FXCollections.observableArrayList(defaultObservableList);
+    }
+    return FXCollections.observableArrayList(serializer.deserializeList(serialized, type));
+  }
+
+  private Class<?> getTypeFromList(ObservableList<?> list) {
+    if (list == null) {
+      return Object.class;
+    }
+    return list.stream()
+        .filter(Objects::nonNull)
+        .findFirst()
+        .<Class<?>>map(Object::getClass)
+        .orElse(Object.class);
+  }
+
+  @Override
+  public boolean clearPreferences() {
+    try {
+      store.clear();
+    } catch (RuntimeException e) {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Rewrites the file, so it only contains the current values.
+   * This also happens automatically when the file has grown to more than twice the size of the
+   * current values.
+   */
+  public void compact() {
+    store.compact();
+  }
+
+  /**
+   * Closes the file. This storage handler can't be used anymore afterwards.
+   */
+  public void close() {
+    store.close();
+  }
+}
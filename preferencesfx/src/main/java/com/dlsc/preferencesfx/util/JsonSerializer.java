@@ -0,0 +1,162 @@
+package com.dlsc.preferencesfx.util;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serializes and de-serializes values as JSON, which is shared by the storage handlers which store
+ * values as JSON, like {@link StorageHandlerImpl} and {@link FileStorageHandler}.
+ *
+ * <p>Values of types with a registered {@link Codec} are converted by the codec, all others by
+ * Gson. Codecs for {@link String}, {@link Boolean}, {@link Integer}, {@link Long}, {@link Double}
+ * and {@link Float} are registered by default and produce the same JSON as Gson does.
+ */
+class JsonSerializer {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(JsonSerializer.class.getName());
+
+  private final Gson gson = new Gson();
+
+  /**
+   * The codecs which are used instead of Gson, mapped by the type of their values.
+   */
+  private final Map<Class<?>, Codec<?>> codecs = new ConcurrentHashMap<>(Codecs.BUILT_IN);
+
+  /**
+   * Registers a codec, which is used to serialize values of {@code type} instead of Gson.
+   *
+   * @param <T>   the type of the values
+   * @param type  the exact class of the values
+   * @param codec the codec to use for the values
+   */
+  <T> void registerCodec(Class<T> type, Codec<T> codec) {
+    codecs.put(type, codec);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Codec<T> getCodec(Class<T> type) {
+    Codec<?> codec = codecs.get(type);
+    if (codec == null && type.isAnonymousClass() && type.getSuperclass().isEnum()) {
+      // enum constants with a body are subclasses of their enum
+      codec = codecs.get(type.getSuperclass());
+    }
+    return (Codec<T>) codec;
+  }
+
+  /**
+   * Serializes a value to JSON.
+   *
+   * @param object the value to serialize, may be null
+   * @return the JSON of the value
+   */
+  @SuppressWarnings("unchecked")
+  String serialize(Object object) {
+    if (object == null) {
+      return Codecs.NULL;
+    }
+    Codec<Object> codec = getCodec((Class<Object>) object.getClass());
+    if (codec != null) {
+      return codec.encode(object);
+    }
+    if (object instanceof List) {
+      String serialized = serializeList((List<?>) object);
+      if (serialized != null) {
+        return serialized;
+      }
+    }
+    return gson.toJson(object);
+  }
+
+  /**
+   * Serializes a list using the codecs of its elements.
+   *
+   * @return the JSON array, or null if not all elements have a codec
+   */
+  @SuppressWarnings("unchecked")
+  private String serializeList(List<?> list) {
+    StringBuilder serialized = new StringBuilder().append('[');
+    for (Object element : list) {
+      if (serialized.length() > 1) {
+        serialized.append(',');
+      }
+      if (element == null) {
+        serialized.append(Codecs.NULL);
+        continue;
+      }
+      Codec<Object> codec = getCodec((Class<Object>) element.getClass());
+      if (codec == null) {
+        return null;
+      }
+      serialized.append(codec.encode(element));
+    }
+    return serialized.append(']').toString();
+  }
+
+  /**
+   * De-serializes a value from JSON.
+   * Values which were stored before a codec was registered for {@code type} are still read using
+   * Gson, if the codec can't read them.
+   *
+   * @param <T>        the type of the value
+   * @param serialized the JSON of the value
+   * @param type       the class of the value
+   * @return the value
+   */
+  <T> T deserialize(String serialized, Class<T> type) {
+    Codec<T> codec = getCodec(type);
+    if (codec != null) {
+      if (Codecs.NULL.equals(serialized)) {
+        return null;
+      }
+      try {
+        return codec.decode(serialized);
+      } catch (RuntimeException e) {
+        LOGGER.trace("Codec could not read " + serialized + ", using Gson", e);
+      }
+    }
+    return gson.fromJson(serialized, type);
+  }
+
+  /**
+   * De-serializes a list from a JSON array.
+   *
+   * @param <T>        the type of the elements
+   * @param serialized the JSON array
+   * @param type       the class of the elements
+   * @return the elements, or an empty list if {@code serialized} is null
+   */
+  <T> List<T> deserializeList(String serialized, Class<T> type) {
+    Codec<T> codec = getCodec(type);
+    if (codec != null) {
+      try {
+        return decodeList(serialized, codec);
+      } catch (RuntimeException e) {
+        LOGGER.trace("Codec could not read " + serialized + ", using Gson", e);
+      }
+    }
+    final List<T> list = gson.fromJson(
+        serialized, TypeToken.getParameterized(List.class, type).getType()
+    );
+    return list == null ? Collections.emptyList() : list;
+  }
+
+  private static <T> List<T> decodeList(String serialized, Codec<T> codec) {
+    if (Codecs.NULL.equals(serialized)) {
+      return Collections.emptyList();
+    }
+    List<String> elements = Codecs.splitArray(serialized);
+    List<T> list = new ArrayList<>(elements.size());
+    for (String element : elements) {
+      list.add(Codecs.NULL.equals(element) ? null : codec.decode(element));
+    }
+    return list;
+  }
+}
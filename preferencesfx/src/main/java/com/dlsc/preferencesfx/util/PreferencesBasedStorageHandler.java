@@ -1,5 +1,6 @@
 package com.dlsc.preferencesfx.util;
 
+import static com.dlsc.preferencesfx.util.Constants.DEFAULT_CHANGE_POLL_INTERVAL;
 import static com.dlsc.preferencesfx.util.Constants.DEFAULT_DIVIDER_POSITION;
 import static com.dlsc.preferencesfx.util.Constants.DEFAULT_PREFERENCES_HEIGHT;
 import static com.dlsc.preferencesfx.util.Constants.DEFAULT_PREFERENCES_POS_X;
@@ -13,11 +14,16 @@ import static com.dlsc.preferencesfx.util.Constants.WINDOW_POS_Y;
 import static com.dlsc.preferencesfx.util.Constants.WINDOW_WIDTH;
 
 import com.dlsc.preferencesfx.model.Setting;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
 import javafx.collections.FXCollections;
@@ -36,7 +42,38 @@ public abstract class PreferencesBasedStorageHandler implements StorageHandler {
   private static final Logger LOGGER =
       LoggerFactory.getLogger(PreferencesBasedStorageHandler.class.getName());
 
+  /**
+   * Flushes the preferences after {@link #saveAll(Map)}, so the caller doesn't wait for the
+   * backing store.
+   */
+  private static final Executor FLUSH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "PreferencesFX Flush");
+    thread.setDaemon(true);
+    return thread;
+  });
+
   private Preferences preferences;
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  /**
+   * Keys in {@link Preferences} which were already calculated, mapped by their breadcrumb.
+   */
+  private final Map<String, String> keys = new ConcurrentHashMap<>();
+
+  /**
+   * The breadcrumbs of the keys in {@link #keys}, mapped by the key, to find out which breadcrumb
+   * belongs to a changed key.
+   */
+  private final Map<String, String> breadcrumbs = new ConcurrentHashMap<>();
+
+  /**
+   * The serialized values read by {@link #preloadValues()}, mapped by their key in
+   * {@link Preferences}, null if the values are read from the preferences one by one.
+   */
+  private volatile Map<String, String> preloadedValues;
+
+  private long changePollInterval = DEFAULT_CHANGE_POLL_INTERVAL;
+  private PreferencesChangeWatcher changeWatcher;
 
   public PreferencesBasedStorageHandler(Class<?> saveClass) {
     preferences = Preferences.userNodeForPackage(saveClass);
@@ -212,9 +249,36 @@ public abstract class PreferencesBasedStorageHandler implements StorageHandler {
    * @param object     the Object which will be saved
    */
   public void saveObject(String breadcrumb, Object object) {
+    preloadedValues = null;
     preferences.put(hash(breadcrumb), serialize(object));
   }
 
+  /**
+   * Saves all given Objects using {@link #saveObject(String, Object)}.
+   * The preferences are flushed once after all values have been put, instead of leaving it to
+   * the backing store to sync after each change.
+   *
+   * @param objects the Objects which will be saved, mapped by the key used to save them
+   * @implNote The preferences are flushed on a background thread, so the calling thread doesn't
+   *           wait for the backing store. Flushes requested while one is still pending are
+   *           combined. Values which were put are visible to all {@link Preferences} of this JVM
+   *           right away.
+   */
+  @Override
+  public void saveAll(Map<String, Object> objects) {
+    objects.forEach(this::saveObject);
+    if (flushScheduled.compareAndSet(false, true)) {
+      FLUSH_EXECUTOR.execute(() -> {
+        flushScheduled.set(false);
+        try {
+          preferences.flush();
+        } catch (BackingStoreException | IllegalStateException e) {
+          LOGGER.error("Preferences could not be flushed to the backing store", e);
+        }
+      });
+    }
+  }
+
   /**
    * Searches in the preferences after a serialized Object using the given key,
    * deserializes and returns it. Returns a default Object if nothing is found.
@@ -224,7 +288,10 @@ public abstract class PreferencesBasedStorageHandler implements StorageHandler {
    * @return the deserialized Object or the default Object if nothing is found
    */
   public Object loadObject(String breadcrumb, Object defaultObject) {
-    String serialized = getSerializedPreferencesValue(breadcrumb, serialize(defaultObject));
+    String serialized = getSerializedPreferencesValue(breadcrumb);
+    if (serialized == null) {
+      return defaultObject;
+    }
     final Class<?> type = defaultObject == null ? Object.class : defaultObject.getClass();
     return deserialize(serialized, type);
   }
@@ -240,8 +307,8 @@ public abstract class PreferencesBasedStorageHandler implements StorageHandler {
    * @return the deserialized Object or the default Object if nothing is found
    */
   public <T> T loadObject(String breadcrumb, Class<T> type, T defaultObject) {
-    String serialized = getSerializedPreferencesValue(breadcrumb, serialize(defaultObject));
-    return deserialize(serialized, type);
+    String serialized = getSerializedPreferencesValue(breadcrumb);
+    return serialized == null ? defaultObject : deserialize(serialized, type);
   }
 
   /**
@@ -257,8 +324,10 @@ public abstract class PreferencesBasedStorageHandler implements StorageHandler {
       String breadcrumb,
       ObservableList defaultObservableList
   ) {
-    final String serializedDefault = serialize(defaultObservableList);
-    final String serialized = getSerializedPreferencesValue(breadcrumb, serializedDefault);
+    final String serialized = getSerializedPreferencesValue(breadcrumb);
+    if (serialized == null) {
+      return copyList(defaultObservableList);
+    }
     final Class<?> type = getTypeFromList(defaultObservableList);
     return FXCollections.observableArrayList(deserializeList(serialized, type));
   }
@@ -278,8 +347,10 @@ public abstract class PreferencesBasedStorageHandler implements StorageHandler {
       Class<T> type,
       ObservableList<T> defaultObservableList
   ) {
-    final String serializedDefault = serialize(defaultObservableList);
-    final String serialized = getSerializedPreferencesValue(breadcrumb, serializedDefault);
+    final String serialized = getSerializedPreferencesValue(breadcrumb);
+    if (serialized == null) {
+      return copyList(defaultObservableList);
+    }
     return FXCollections.observableArrayList(deserializeList(serialized, type));
   }
 
@@ -295,8 +366,50 @@ public abstract class PreferencesBasedStorageHandler implements StorageHandler {
     return potentialClass.orElse(Object.class);
   }
 
-  private String getSerializedPreferencesValue(String breadcrumb, String serializedDefault) {
-    return preferences.get(hash(breadcrumb), serializedDefault);
+  private static <T> ObservableList<T> copyList(ObservableList<T> list) {
+    return list == null
+        ? FXCollections.observableArrayList()
+        : FXCollections.observableArrayList(list);
+  }
+
+  /**
+   * Returns the serialized value of the given key, or null if there is none.
+   * Defaults are only serialized when needed, by the callers.
+   */
+  private String getSerializedPreferencesValue(String breadcrumb) {
+    Map<String, String> preloaded = preloadedValues;
+    if (preloaded != null) {
+      return preloaded.get(hash(breadcrumb));
+    }
+    return preferences.get(hash(breadcrumb), null);
+  }
+
+  /**
+   * Reads all values from the preferences at once, so loading the values of all settings
+   * afterwards doesn't need to access the preferences for each of them.
+   * Saving a value discards the preloaded values again.
+   */
+  @Override
+  public void preloadValues() {
+    Map<String, String> values = new HashMap<>();
+    try {
+      for (String key : preferences.keys()) {
+        String value = preferences.get(key, null);
+        if (value != null) {
+          values.put(key, value);
+        }
+      }
+    } catch (BackingStoreException e) {
+      LOGGER.error("Preferences could not be preloaded", e);
+      return;
+    }
+    LOGGER.trace("Preloaded " + values.size() + " values");
+    preloadedValues = values;
+  }
+
+  @Override
+  public void clearPreloadedValues() {
+    preloadedValues = null;
   }
 
   /**
@@ -305,6 +418,7 @@ public abstract class PreferencesBasedStorageHandler implements StorageHandler {
    * @return true if successful, false if there was an exception.
    */
   public boolean clearPreferences() {
+    preloadedValues = null;
     try {
       preferences.clear();
     } catch (BackingStoreException e) {
@@ -322,9 +436,74 @@ public abstract class PreferencesBasedStorageHandler implements StorageHandler {
    *
    * @param key the string for which to calculate the hash
    * @return SHA-256 representation of breadcrumb
+   * @implNote The hashes are cached by breadcrumb, until they are invalidated using
+   *     {@link #invalidateKey(String)}.
    */
   public String hash(String key) {
-    return Strings.sha256(key);
+    return keys.computeIfAbsent(key, breadcrumb -> {
+      String hash = Strings.sha256(breadcrumb);
+      breadcrumbs.put(hash, breadcrumb);
+      return hash;
+    });
+  }
+
+  /**
+   * Removes the cached key of the given breadcrumb, so it is no longer held on to after the
+   * breadcrumb of a setting has changed.
+   *
+   * @param breadcrumb the breadcrumb which is no longer used
+   */
+  @Override
+  public void invalidateKey(String breadcrumb) {
+    if (breadcrumb != null) {
+      String hash = keys.remove(breadcrumb);
+      if (hash != null) {
+        breadcrumbs.remove(hash);
+      }
+    }
+  }
+
+  /**
+   * Starts notifying a listener about values which were changed outside of this storage handler.
+   * Changes made in the same JVM are reported right away, changes made by other processes once
+   * the preferences are synced with their backing store, see
+   * {@link #setChangePollInterval(long)}.
+   *
+   * @param listener is called with the breadcrumb of each changed value, on a background thread
+   * @return true, since changes are always watched
+   * @implNote Only changes of values whose breadcrumb was used by this storage handler before are
+   *           reported, since the breadcrumb can't be derived from the hashed key.
+   */
+  @Override
+  public synchronized boolean watchChanges(Consumer<String> listener) {
+    stopWatchingChanges();
+    changeWatcher = new PreferencesChangeWatcher(preferences, changePollInterval, key -> {
+      preloadedValues = null;
+      String breadcrumb = breadcrumbs.get(key);
+      if (breadcrumb != null) {
+        listener.accept(breadcrumb);
+      }
+    });
+    return true;
+  }
+
+  @Override
+  public synchronized void stopWatchingChanges() {
+    if (changeWatcher != null) {
+      changeWatcher.stop();
+      changeWatcher = null;
+    }
+  }
+
+  /**
+   * Defines how often the preferences are synced with their backing store while watching for
+   * changes, to find changes made by other processes. Takes effect the next time
+   * {@link #watchChanges(Consumer)} is called.
+   *
+   * @param changePollInterval the interval in milliseconds. Defaults to 2000.
+   */
+  public void setChangePollInterval(long changePollInterval) {
+    this.changePollInterval = changePollInterval;
   }
 
   public Preferences getPreferences() {
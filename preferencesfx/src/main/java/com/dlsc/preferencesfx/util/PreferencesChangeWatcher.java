@@ -0,0 +1,131 @@
+package com.dlsc.preferencesfx.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.PreferenceChangeEvent;
+import java.util.prefs.PreferenceChangeListener;
+import java.util.prefs.Preferences;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Notifies a listener about the keys of values which changed in a {@link Preferences} node.
+ *
+ * <p>{@link Preferences} only sends events about changes made in the same JVM, so the node is
+ * also synced with its backing store periodically on a background thread, and compared with the
+ * values it had before, to find changes made by other processes.
+ *
+ * @implNote The listener is called on the event dispatch thread of {@link Preferences} or on the
+ *     background thread, never on the JavaFX application thread.
+ */
+final class PreferencesChangeWatcher {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(PreferencesChangeWatcher.class.getName());
+
+  private final Preferences preferences;
+  private final Consumer<String> listener;
+  private final PreferenceChangeListener changeListener = this::preferenceChanged;
+  private final ScheduledExecutorService executor;
+
+  /**
+   * The values of the node as they were last seen, mapped by their key.
+   */
+  private Map<String, String> values;
+
+  /**
+   * Starts watching a node.
+   *
+   * @param preferences        the node to watch
+   * @param pollIntervalMillis how many milliseconds to wait between syncing the node
+   * @param listener           is called with the key of each changed value
+   */
+  PreferencesChangeWatcher(
+      Preferences preferences,
+      long pollIntervalMillis,
+      Consumer<String> listener
+  ) {
+    this.preferences = preferences;
+    this.listener = listener;
+    try {
+      values = readValues();
+    } catch (BackingStoreException e) {
+      LOGGER.error("Preferences could not be read", e);
+      values = new HashMap<>();
+    }
+    preferences.addPreferenceChangeListener(changeListener);
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "PreferencesFX ChangeWatcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(
+        this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS
+    );
+  }
+
+  /**
+   * Stops watching the node.
+   */
+  void stop() {
+    executor.shutdownNow();
+    preferences.removePreferenceChangeListener(changeListener);
+  }
+
+  private void preferenceChanged(PreferenceChangeEvent event) {
+    synchronized (this) {
+      if (Objects.equals(values.get(event.getKey()), event.getNewValue())) {
+        // already seen while polling
+        return;
+      }
+      if (event.getNewValue() == null) {
+        values.remove(event.getKey());
+      } else {
+        values.put(event.getKey(), event.getNewValue());
+      }
+    }
+    listener.accept(event.getKey());
+  }
+
+  private void poll() {
+    Set<String> changedKeys = new HashSet<>();
+    synchronized (this) {
+      Map<String, String> current;
+      try {
+        preferences.sync();
+        current = readValues();
+      } catch (BackingStoreException | IllegalStateException e) {
+        LOGGER.error("Preferences could not be synced with the backing store", e);
+        return;
+      }
+      current.forEach((key, value) -> {
+        if (!value.equals(values.get(key))) {
+          changedKeys.add(key);
+        }
+      });
+      values.keySet().stream()
+          .filter(key -> !current.containsKey(key))
+          .forEach(changedKeys::add);
+      values = current;
+    }
+    changedKeys.forEach(listener);
+  }
+
+  private Map<String, String> readValues() throws BackingStoreException {
+    Map<String, String> current = new HashMap<>();
+    for (String key : preferences.keys()) {
+      String value = preferences.get(key, null);
+      if (value != null) {
+        current.put(key, value);
+      }
+    }
+    return current;
+  }
+}
@@ -1,11 +1,13 @@
 package com.dlsc.preferencesfx.util;
 
+import com.dlsc.formsfx.model.util.TranslationService;
 import com.dlsc.preferencesfx.model.Category;
 import com.dlsc.preferencesfx.model.Group;
 import com.dlsc.preferencesfx.model.PreferencesFxModel;
 import com.dlsc.preferencesfx.model.Setting;
 import com.dlsc.preferencesfx.view.FilterableTreeItem;
 import com.dlsc.preferencesfx.view.TreeItemPredicate;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.scene.control.TreeItem;
@@ -13,11 +15,20 @@ import javafx.scene.control.TreeView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-
-import static com.dlsc.preferencesfx.util.Strings.containsIgnoreCase;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Handles everything related to searching in the{@link Category}, {@link Group}
@@ -31,6 +42,11 @@ public class SearchHandler {
   private static final Logger LOGGER =
       LoggerFactory.getLogger(SearchHandler.class.getName());
 
+  /**
+   * How many seconds the search thread is kept alive without searching, before it is stopped.
+   */
+  private static final long SEARCH_THREAD_KEEP_ALIVE = 10;
+
   private PreferencesFxModel model;
 
   private List<Category> flatCategoriesLst;
@@ -39,14 +55,58 @@ public class SearchHandler {
   private List<Category> filteredCategoriesLst;
   private List<Setting> filteredSettingsLst;
   private List<Group> filteredGroupsLst;
+
+  /**
+   * The settings and groups which are currently marked by the search.
+   */
+  private Set<Setting> markedSettings = new LinkedHashSet<>();
+  private Set<Group> markedGroups = new LinkedHashSet<>();
   private int categoryMatches;
   private int settingMatches;
   private int groupMatches;
   private HashMap<Group, Category> groupCategoryMap;
   private HashMap<Setting, Category> settingCategoryMap;
+  private SearchIndex<Category> categoryIndex;
+  private SearchIndex<Setting> settingIndex;
+  private SearchIndex<Group> groupIndex;
+
+  /**
+   * True if the descriptions may have changed since the indices were last refreshed.
+   */
+  private boolean indicesOutdated = false;
+  private final Runnable translationListener = () -> indicesOutdated = true;
+
+  /**
+   * The text for which {@link #matchingCategories} was last determined.
+   */
+  private String matchedText;
+
+  /**
+   * Categories which match the search text themselves or contain a matching group or setting.
+   */
+  private Set<Category> matchingCategories = new HashSet<>();
 
   private StringProperty searchText = new SimpleStringProperty();
 
+  /**
+   * How many milliseconds to wait after the search text changed before searching.
+   */
+  private long searchDelay = 0;
+  private boolean backgroundSearch = false;
+  private ScheduledExecutorService searchExecutor;
+  private ScheduledFuture<?> pendingSearch;
+  private Executor fxExecutor = Platform::runLater;
+
+  /**
+   * Incremented whenever the search text changes, to discard the results of outdated searches.
+   */
+  private long searchGeneration = 0;
+
+  /**
+   * Incremented whenever the results of a deferred search were applied, to filter the tree again.
+   */
+  private IntegerProperty searchResultVersion = new SimpleIntegerProperty();
+
   /**
    * Represents the category which is matched by the search and should ultimately be displayed.
    */
@@ -57,25 +117,14 @@ public class SearchHandler {
    * If result is true, it will be shown, if the result is false, it will be hidden.
    */
   private TreeItemPredicate<Category> filterPredicate = (parent, category) -> {
-    // look in category description for matches
+    // the category itself, one of its settings or one of its groups match
+    // when the search is deferred, the matches of the last finished search are used
     String searchText = model.getSearchText();
-    boolean categoryMatch = containsIgnoreCase(category.getDescription(), searchText);
-    boolean settingMatch = false;
-    boolean groupMatch = false;
-    if (category.getGroups() != null) {
-      // look in settings too
-      settingMatch = category.getGroups().stream()
-          .map(Group::getSettings)      // get settings from groups
-          .flatMap(Collection::stream)  // flatten all lists of settings to settings
-          .filter(Setting::hasDescription)
-          .filter(setting -> !Strings.isNullOrEmpty(setting.getDescription()))
-          .anyMatch(setting -> containsIgnoreCase(setting.getDescription(), searchText));
-      // look in groups too
-      groupMatch = category.getGroups().stream()
-          .filter(group -> !Strings.isNullOrEmpty(group.getDescription()))
-          .anyMatch(group -> containsIgnoreCase(group.getDescription(), searchText));
+    if (!isSearchDeferred() && !Strings.isNullOrEmpty(searchText)
+        && !searchText.equals(matchedText)) {
+      updateFilteredLists(searchText);
     }
-    return categoryMatch || settingMatch || groupMatch;
+    return matchingCategories.contains(category);
   };
 
   /**
@@ -94,6 +143,7 @@ public class SearchHandler {
   ) {
     this.model = model;
     initializeSearch();
+    initializeTranslationListener();
     initializeSearchText(searchText);
     bindFilterPredicate(predicateProperty);
   }
@@ -104,6 +154,33 @@ public class SearchHandler {
     groupCategoryMap = PreferencesFxUtils.mapGroupsToCategories(flatCategoriesLst);
     flatSettingsLst = PreferencesFxUtils.categoriesToSettings(flatCategoriesLst);
     flatGroupsLst = PreferencesFxUtils.categoriesToGroups(flatCategoriesLst);
+    categoryIndex = new SearchIndex<>(flatCategoriesLst, Category::getDescription);
+    settingIndex = new SearchIndex<>(
+        flatSettingsLst.stream().filter(Setting::hasDescription).collect(Collectors.toList()),
+        Setting::getDescription
+    );
+    groupIndex = new SearchIndex<>(flatGroupsLst, Group::getDescription);
+  }
+
+  /**
+   * Makes sure the search indices get refreshed before the next search, when the descriptions
+   * change because of a new translation.
+   */
+  private void initializeTranslationListener() {
+    addTranslationListener(model.getTranslationService());
+    model.translationServiceProperty().addListener((observable, oldValue, newValue) -> {
+      if (oldValue != null) {
+        oldValue.removeListener(translationListener);
+      }
+      addTranslationListener(newValue);
+    });
+  }
+
+  private void addTranslationListener(TranslationService translationService) {
+    indicesOutdated = true;
+    if (translationService != null) {
+      translationService.addListener(translationListener);
+    }
   }
 
   /**
@@ -122,14 +199,99 @@ public class SearchHandler {
    */
   private void initializeSearchTextListener() {
     searchText.addListener((observable, oldText, newText) -> {
+      searchGeneration++;
+      cancelPendingSearch();
       if (newText.equals("")) { // empty search -> doesn't match anything!
         resetSearch();
+      } else if (isSearchDeferred()) {
+        scheduleSearch(newText);
       } else {
         updateSearch(newText);
       }
     });
   }
 
+  /**
+   * Searches after the search delay has passed, unless the search text changes in the meantime.
+   * When searching in the background, the matches are determined on a background thread and only
+   * applied on the JavaFX application thread.
+   */
+  private void scheduleSearch(String searchText) {
+    final long generation = searchGeneration;
+    // reading the descriptions needs to happen on the JavaFX application thread
+    refreshIndices();
+    pendingSearch = getSearchExecutor().schedule(() -> {
+      Matches matches = backgroundSearch ? search(searchText) : null;
+      fxExecutor.execute(() -> {
+        if (generation == searchGeneration) {
+          applySearch(matches == null ? search(searchText) : matches);
+        }
+      });
+    }, searchDelay, TimeUnit.MILLISECONDS);
+  }
+
+  private void cancelPendingSearch() {
+    if (pendingSearch != null) {
+      pendingSearch.cancel(false);
+      pendingSearch = null;
+    }
+  }
+
+  private void applySearch(Matches matches) {
+    pendingSearch = null;
+    applyMatches(matches);
+    setCategoryMatch(getSelectedCategoryByMatch());
+    markMatches();
+    searchResultVersion.set(searchResultVersion.get() + 1);
+  }
+
+  private ScheduledExecutorService getSearchExecutor() {
+    if (searchExecutor == null) {
+      ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "PreferencesFX Search");
+        thread.setDaemon(true);
+        return thread;
+      });
+      // the thread is stopped while nobody is typing and started again for the next search
+      executor.setKeepAliveTime(SEARCH_THREAD_KEEP_ALIVE, TimeUnit.SECONDS);
+      executor.allowCoreThreadTimeOut(true);
+      executor.setRemoveOnCancelPolicy(true);
+      searchExecutor = executor;
+    }
+    return searchExecutor;
+  }
+
+  /**
+   * Stops the search thread if searches are no longer deferred.
+   */
+  private void shutdownUnusedSearchExecutor() {
+    if (!isSearchDeferred() && searchExecutor != null) {
+      searchGeneration++;
+      cancelPendingSearch();
+      searchExecutor.shutdown();
+      searchExecutor = null;
+    }
+  }
+
+  /**
+   * Sets the executor which runs deferred searches, used by tests to control the timing.
+   */
+  void setSearchExecutor(ScheduledExecutorService searchExecutor) {
+    this.searchExecutor = searchExecutor;
+  }
+
+  /**
+   * Sets the executor which applies the results of deferred searches on the JavaFX application
+   * thread, used by tests which run without it.
+   */
+  void setFxExecutor(Executor fxExecutor) {
+    this.fxExecutor = fxExecutor;
+  }
+
+  private boolean isSearchDeferred() {
+    return searchDelay > 0 || backgroundSearch;
+  }
+
   private void resetSearch() {
     setCategoryMatch(null); // no categories match
     unmarkEverything();
@@ -155,29 +317,52 @@ public class SearchHandler {
         return null;
       }
       return filterPredicate;
-    }, searchText));
+    }, searchText, searchResultVersion));
   }
 
   /**
    * Updates the search based on a new {@code searchText}.
    *
    * @param searchText the new text to be searched for
-   * @implNote Filters the lists, sets the category match, unmarks everything and marks all matches.
+   * @implNote Filters the lists, sets the category match, unmarks the previous matches which no
+   *     longer match and marks the new matches.
    */
   public void updateSearch(String searchText) {
     updateFilteredLists(searchText);
     setCategoryMatch(getSelectedCategoryByMatch());
-    unmarkEverything();
     markMatches();
   }
 
   private void updateFilteredLists(String searchText) {
-    filteredCategoriesLst =
-        PreferencesFxUtils.filterCategoriesByDescription(flatCategoriesLst, searchText);
-    filteredSettingsLst =
-        PreferencesFxUtils.filterSettingsByDescription(flatSettingsLst, searchText);
-    filteredGroupsLst =
-        PreferencesFxUtils.filterGroupsByDescription(flatGroupsLst, searchText);
+    refreshIndices();
+    if (!searchText.equals(matchedText)) {
+      applyMatches(search(searchText));
+    }
+  }
+
+  /**
+   * Determines the matches of {@code searchText}.
+   * Only uses the indices and maps, so it may be called from a background thread.
+   */
+  private Matches search(String searchText) {
+    Matches matches = new Matches(searchText);
+    matches.categories = categoryIndex.search(searchText);
+    matches.settings = settingIndex.search(searchText);
+    matches.groups = groupIndex.search(searchText);
+    matches.matchingCategories = new HashSet<>(matches.categories);
+    matches.settings.forEach(setting -> matches.matchingCategories.add(
+        settingCategoryMap.get(setting)));
+    matches.groups.forEach(group -> matches.matchingCategories.add(
+        groupCategoryMap.get(group)));
+    return matches;
+  }
+
+  private void applyMatches(Matches matches) {
+    matchedText = matches.searchText;
+    filteredCategoriesLst = matches.categories;
+    filteredSettingsLst = matches.settings;
+    filteredGroupsLst = matches.groups;
+    matchingCategories = matches.matchingCategories;
     categoryMatches = filteredCategoriesLst.size();
     settingMatches = filteredSettingsLst.size();
     groupMatches = filteredGroupsLst.size();
@@ -186,6 +371,16 @@ public class SearchHandler {
     LOGGER.trace("Matched Groups: " + groupMatches);
   }
 
+  private void refreshIndices() {
+    if (indicesOutdated) {
+      indicesOutdated = false;
+      int changed = categoryIndex.refresh() + settingIndex.refresh() + groupIndex.refresh();
+      LOGGER.trace("Refreshed search indices, changed descriptions: " + changed);
+      // descriptions changed, so the matches could have changed as well
+      matchedText = changed == 0 ? matchedText : null;
+    }
+  }
+
   // asciidoctor Documentation - tag::compareMatches[]
   private Category getSelectedCategoryByMatch() {
     // Strategy: Go from most specific match to most unspecific match
@@ -202,16 +397,52 @@ public class SearchHandler {
   }
   // asciidoctor Documentation - end::compareMatches[]
 
+  /**
+   * Unmarks all settings and groups which are currently marked.
+   */
   private void unmarkEverything() {
-    flatCategoriesLst.forEach(Category::unmarkAll);
+    markedSettings.forEach(Setting::unmark);
+    markedSettings.clear();
+    markedGroups.forEach(Group::unmark);
+    markedGroups.clear();
   }
 
   private void markMatches() {
-    if (settingMatches >= 1) {
-      filteredSettingsLst.forEach(Setting::mark);
+    updateMarks(
+        markedSettings, filteredSettingsLst, Setting::isMarked, Setting::mark, Setting::unmark
+    );
+    updateMarks(markedGroups, filteredGroupsLst, Group::isMarked, Group::mark, Group::unmark);
+  }
+
+  /**
+   * Only unmarks the items which were marked by the search and no longer match, instead of
+   * unmarking all items, and marks the matches which aren't marked.
+   *
+   * @param marked   the items which were marked by the search, updated to contain the matches
+   * @param matches  the items which should be marked
+   * @param isMarked whether an item is marked
+   * @param mark     marks an item
+   * @param unmark   unmarks an item
+   * @implNote Matches are checked with {@code isMarked} instead of {@code marked}, since moving
+   *           the mouse over the label of an item unmarks it, without notifying the search.
+   */
+  private static <T> void updateMarks(
+      Set<T> marked, List<T> matches, Predicate<T> isMarked, Consumer<T> mark, Consumer<T> unmark
+  ) {
+    Set<T> matchesSet = new HashSet<>(matches);
+    Iterator<T> iterator = marked.iterator();
+    while (iterator.hasNext()) {
+      T item = iterator.next();
+      if (!matchesSet.contains(item)) {
+        unmark.accept(item);
+        iterator.remove();
+      }
     }
-    if (groupMatches >= 1) {
-      filteredGroupsLst.forEach(Group::mark);
+    for (T match : matches) {
+      marked.add(match);
+      if (!isMarked.test(match)) {
+        mark.accept(match);
+      }
     }
   }
 
@@ -288,4 +519,50 @@ public class SearchHandler {
   public ReadOnlyObjectProperty<Category> categoryMatchProperty() {
     return categoryMatch;
   }
+
+  public long getSearchDelay() {
+    return searchDelay;
+  }
+
+  /**
+   * Defines how long to wait after the search text changed before searching.
+   * If the search text changes again in the meantime, only the new text is searched for.
+   *
+   * @param searchDelay the delay in milliseconds, 0 to search immediately
+   */
+  public void setSearchDelay(long searchDelay) {
+    this.searchDelay = Math.max(0, searchDelay);
+    shutdownUnusedSearchExecutor();
+  }
+
+  public boolean isBackgroundSearch() {
+    return backgroundSearch;
+  }
+
+  /**
+   * Defines whether the matches of the search text should be determined on a background thread.
+   * Only marking the matches and selecting the matching category are done on the JavaFX
+   * application thread. Results of searches for outdated search texts are discarded.
+   *
+   * @param backgroundSearch if true, the search runs on a background thread
+   */
+  public void setBackgroundSearch(boolean backgroundSearch) {
+    this.backgroundSearch = backgroundSearch;
+    shutdownUnusedSearchExecutor();
+  }
+
+  /**
+   * The matches of a search text.
+   */
+  private static final class Matches {
+    private final String searchText;
+    private List<Category> categories;
+    private List<Setting> settings;
+    private List<Group> groups;
+    private Set<Category> matchingCategories;
+
+    private Matches(String searchText) {
+      this.searchText = searchText;
+    }
+  }
 }
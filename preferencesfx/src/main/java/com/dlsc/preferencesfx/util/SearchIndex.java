@@ -0,0 +1,192 @@
+package com.dlsc.preferencesfx.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Index of the descriptions of a list of items, to find all items whose description contains a
+ * search text (ignoring the case) without scanning all descriptions.
+ *
+ * <p>All substrings of up to {@link #GRAM_LENGTH} characters of each description are indexed.
+ * Search texts up to that length are looked up directly, longer ones are looked up by
+ * intersecting the items of all their substrings of that length, and then verified.
+ *
+ * <p>Searching is thread-safe, so it can happen on a background thread while the index is
+ * refreshed on the JavaFX application thread.
+ *
+ * @param <T> the type of the items
+ */
+class SearchIndex<T> {
+
+  static final int GRAM_LENGTH = 3;
+
+  private final List<T> items;
+  private final Function<T, String> descriptionFunction;
+
+  /**
+   * The case folded descriptions of the items, by the index of the item.
+   */
+  private final String[] descriptions;
+
+  /**
+   * The indices of all items containing a gram, mapped by the gram.
+   */
+  private final Map<String, BitSet> grams = new HashMap<>();
+
+  /**
+   * The case folded text of the last search and its matches, to refine them when the text is
+   * extended.
+   */
+  private String lastSearchText;
+  private BitSet lastMatches;
+
+  /**
+   * Creates an index of the descriptions of {@code items}.
+   *
+   * @param items               the items to index, in the order in which they should be found
+   * @param descriptionFunction returns the description of an item, may return {@code null}
+   */
+  SearchIndex(List<T> items, Function<T, String> descriptionFunction) {
+    this.items = new ArrayList<>(items);
+    this.descriptionFunction = descriptionFunction;
+    descriptions = new String[items.size()];
+    refresh();
+  }
+
+  /**
+   * Reads the descriptions of all items again and updates the index for those which changed,
+   * for example after they have been translated.
+   *
+   * @return the number of items whose description changed
+   */
+  synchronized int refresh() {
+    int changed = 0;
+    for (int i = 0; i < descriptions.length; i++) {
+      String description = fold(descriptionFunction.apply(items.get(i)));
+      if (!description.equals(descriptions[i])) {
+        if (descriptions[i] != null) {
+          removeGrams(i, descriptions[i]);
+        }
+        descriptions[i] = description;
+        addGrams(i, description);
+        changed++;
+      }
+    }
+    if (changed > 0) {
+      lastSearchText = null;
+      lastMatches = null;
+    }
+    return changed;
+  }
+
+  /**
+   * Searches for all items whose description contains {@code searchText}, ignoring the case in the
+   * same manner as {@link Strings#containsIgnoreCase(String, String)}.
+   *
+   * @param searchText the text to search for, an empty text matches all items
+   * @return the matching items, in the order in which they were indexed
+   * @implNote If {@code searchText} contains the text of the previous search, only the matches of
+   *     the previous search are checked, since no other item can match.
+   */
+  synchronized List<T> search(String searchText) {
+    String folded = fold(searchText);
+    BitSet matches;
+    if (lastSearchText != null && folded.contains(lastSearchText)) {
+      matches = refine(lastMatches, folded);
+    } else {
+      matches = find(folded);
+    }
+    lastSearchText = folded;
+    lastMatches = matches;
+
+    List<T> result = new ArrayList<>();
+    for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+      result.add(items.get(i));
+    }
+    return result;
+  }
+
+  private BitSet find(String searchText) {
+    if (searchText.isEmpty()) {
+      BitSet all = new BitSet(descriptions.length);
+      all.set(0, descriptions.length);
+      return all;
+    }
+    if (searchText.length() <= GRAM_LENGTH) {
+      BitSet matches = grams.get(searchText);
+      return matches == null ? new BitSet() : (BitSet) matches.clone();
+    }
+    BitSet candidates = null;
+    for (int i = 0; i + GRAM_LENGTH <= searchText.length(); i++) {
+      BitSet matches = grams.get(searchText.substring(i, i + GRAM_LENGTH));
+      if (matches == null) {
+        return new BitSet();
+      }
+      if (candidates == null) {
+        candidates = (BitSet) matches.clone();
+      } else {
+        candidates.and(matches);
+      }
+    }
+    // all grams being contained doesn't mean they are contained in the right order
+    return refine(candidates, searchText);
+  }
+
+  /**
+   * Removes all items from {@code matches} whose description doesn't contain {@code searchText}.
+   */
+  private BitSet refine(BitSet matches, String searchText) {
+    for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+      if (!descriptions[i].contains(searchText)) {
+        matches.clear(i);
+      }
+    }
+    return matches;
+  }
+
+  private void addGrams(int index, String description) {
+    forEachGram(description, gram -> grams.computeIfAbsent(gram, g -> new BitSet()).set(index));
+  }
+
+  private void removeGrams(int index, String description) {
+    forEachGram(description, gram -> {
+      BitSet matches = grams.get(gram);
+      if (matches != null) {
+        matches.clear(index);
+        if (matches.isEmpty()) {
+          grams.remove(gram);
+        }
+      }
+    });
+  }
+
+  private static void forEachGram(String description, Consumer<String> action) {
+    for (int start = 0; start < description.length(); start++) {
+      int maxEnd = Math.min(description.length(), start + GRAM_LENGTH);
+      for (int end = start + 1; end <= maxEnd; end++) {
+        action.accept(description.substring(start, end));
+      }
+    }
+  }
+
+  /**
+   * Folds the case of each character the same way as {@link String#regionMatches(boolean, int,
+   * String, int, int)} compares them, while keeping the length of the string.
+   * Returns an empty string for {@code null}, which won't be found by non-empty search texts.
+   */
+  static String fold(String string) {
+    if (string == null) {
+      return "";
+    }
+    char[] chars = string.toCharArray();
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+    }
+    return new String(chars);
+  }
+}
@@ -1,6 +1,8 @@
 package com.dlsc.preferencesfx.util;
 
 import com.dlsc.preferencesfx.model.Setting;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.prefs.Preferences;
 import javafx.collections.ObservableList;
 
@@ -109,6 +111,18 @@ public interface StorageHandler {
   void saveObject(String breadcrumb, Object object);
   // asciidoctor Documentation - end::storageHandlerSave[]
 
+  /**
+   * Serializes all given Objects and saves them to the storage using their respective keys.
+   * Is used to save the values of all settings at once, so implementations can write them in a
+   * single pass instead of once per setting.
+   *
+   * @param objects the Objects which will be saved, mapped by the key used to save them
+   * @implSpec The default implementation calls {@link #saveObject(String, Object)} for each entry.
+   */
+  default void saveAll(Map<String, Object> objects) {
+    objects.forEach(this::saveObject);
+  }
+
   /**
    * Searches in the storage after a serialized Object using the given key, deserializes and returns
    * it. Returns a default Object if nothing is found.
@@ -161,10 +175,62 @@ public interface StorageHandler {
       ObservableList<T> defaultObservableList
   );
 
+  /**
+   * Reads all stored values at once, so that loading the values of all settings afterwards
+   * doesn't need to access the storage for each of them. Is called before the values of all
+   * settings are loaded, followed by {@link #clearPreloadedValues()} afterwards.
+   *
+   * @implSpec The default implementation does nothing.
+   */
+  default void preloadValues() {
+  }
+
+  /**
+   * Discards the values read by {@link #preloadValues()}, so they are read from the storage
+   * again.
+   *
+   * @implSpec The default implementation does nothing.
+   */
+  default void clearPreloadedValues() {
+  }
+
   /**
    * Clears the storage.
    *
    * @return true if successful, false if there was an exception.
    */
   boolean clearPreferences();
+
+  /**
+   * Notifies this storage handler that a setting no longer uses the given breadcrumb as its key,
+   * for example because its breadcrumb was re-created. Implementations which cache anything
+   * derived from the breadcrumb can drop it.
+   *
+   * @param breadcrumb the breadcrumb which is no longer used
+   * @implSpec The default implementation does nothing.
+   */
+  default void invalidateKey(String breadcrumb) {
+  }
+
+  /**
+   * Starts notifying a listener about values which were changed outside of this storage handler,
+   * for example by another instance of the application or by an administration tool.
+   * Replaces the listener which was registered before, if any.
+   *
+   * @param listener is called with the key of each changed value, on any thread. May also be
+   *                 called for values which were saved using this storage handler
+   * @return true if changes are watched, false if this storage handler doesn't support it
+   * @implSpec The default implementation doesn't support watching changes and returns false.
+   */
+  default boolean watchChanges(Consumer<String> listener) {
+    return false;
+  }
+
+  /**
+   * Stops notifying the listener registered using {@link #watchChanges(Consumer)}.
+   *
+   * @implSpec The default implementation does nothing.
+   */
+  default void stopWatchingChanges() {
+  }
 }
@@ -1,48 +1,50 @@
 package com.dlsc.preferencesfx.util;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.reflect.TypeToken;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Handles everything related to serializing and de-serializing values.
  *
+ * <p>Values of types with a registered {@link Codec} are converted by the codec, all others by
+ * Gson. Codecs for {@link String}, {@link Boolean}, {@link Integer}, {@link Long}, {@link Double}
+ * and {@link Float} are registered by default and produce the same JSON as Gson does.
+ *
  * @author François Martin
  * @author Marco Sanfratello
  */
 public class StorageHandlerImpl extends PreferencesBasedStorageHandler {
 
-  private final Gson gson;
+  private final JsonSerializer serializer = new JsonSerializer();
 
   public StorageHandlerImpl(Class<?> saveClass) {
     super(saveClass);
-    gson = new Gson();
+  }
+
+  /**
+   * Registers a codec, which is used to store values of {@code type} instead of Gson.
+   * Values which were stored before the codec was registered are still read using Gson, if the
+   * codec can't read them.
+   *
+   * @param <T>   the type of the values
+   * @param type  the exact class of the values, like {@code Color.class}
+   * @param codec the codec to use for the values, see {@link Codec#of} and {@link Codec#ofEnum}
+   */
+  public <T> void registerCodec(Class<T> type, Codec<T> codec) {
+    serializer.registerCodec(type, codec);
   }
 
   @Override
   protected String serialize(Object object) {
-    return gson.toJson(object);
+    return serializer.serialize(object);
   }
 
   @Override
   protected <T> T deserialize(String serialized, Class<T> type) {
-    return gson.fromJson(serialized, type);
+    return serializer.deserialize(serialized, type);
   }
 
   @Override
   protected <T> List<T> deserializeList(String serialized, Class<T> type) {
-    final TypeToken typeToken = new TypeToken<List<JsonElement>>() {};
-    final List<JsonElement> list = gson.fromJson(serialized, typeToken.getType());
-
-    if (list == null) {
-      return Collections.emptyList();
-    }
-
-    return list.stream()
-        .map(jsonElement -> gson.fromJson(jsonElement, type))
-        .collect(Collectors.toList());
+    return serializer.deserializeList(serialized, type);
   }
 }
@@ -13,6 +13,18 @@ public class Strings {
 
   private static final char[] HEX_ARRAY = "0123456789abcdef".toCharArray();
 
+  /**
+   * {@link MessageDigest} instances are not thread-safe, but expensive to look up, so one is kept
+   * per thread.
+   */
+  private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("sha-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  });
+
   /**
    * Checks if a string is null or empty.
    *
@@ -31,13 +43,9 @@ public class Strings {
    */
   public static String sha256(String string) {
     requireNonNull(string);
-    try {
-      final MessageDigest digest = MessageDigest.getInstance("sha-256");
-      final byte[] hash = digest.digest(string.getBytes(StandardCharsets.UTF_8));
-      return hexString(hash);
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException(e);
-    }
+    final MessageDigest digest = SHA_256.get();
+    digest.reset();
+    return hexString(digest.digest(string.getBytes(StandardCharsets.UTF_8)));
   }
 
   /**
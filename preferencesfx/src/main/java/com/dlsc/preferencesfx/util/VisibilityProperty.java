@@ -3,11 +3,17 @@ package com.dlsc.preferencesfx.util;
 import java.util.function.Function;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.Property;
-import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.value.ObservableValue;
 
 @FunctionalInterface
 public interface VisibilityProperty {
+    /**
+     * Returns the property holding the visibility.
+     *
+     * @return the property holding the visibility
+     * @implSpec Should return the same property on every call, since it is bound to by the label and
+     *           the node of a setting, the title of a group and the tree item of a category.
+     */
     BooleanProperty get();
 
     /**
@@ -17,21 +23,17 @@ public interface VisibilityProperty {
      * The new value of the {@link VisibilityProperty} will be the result of the given {@link Function} applied to the
      * new value of the {@link Property}.
      *
+     * @implNote The returned {@link VisibilityProperty} creates its {@link BooleanProperty} once, on the first
+     *           call of {@link #get()}, so the {@link Function} is only applied once per change of the given
+     *           {@link Property}, no matter how many nodes are bound to it.
+     *
      * @param property
      * @param visibilityFunc
      * @return
      * @param <T>
      */
     static <T> VisibilityProperty of(ObservableValue<T> property, Function<T, Boolean> visibilityFunc) {
-        return () -> {
-            BooleanProperty visibilityProperty = new SimpleBooleanProperty(true);
-
-            property.addListener((observable, oldValue, newValue) -> visibilityProperty.set(visibilityFunc.apply(newValue)));
-
-            // set the initial value of the visibility property properly
-            visibilityProperty.set(visibilityFunc.apply(property.getValue()));
-            return visibilityProperty;
-        };
+        return new DerivedVisibilityProperty<>(property, visibilityFunc);
     }
 
     /**
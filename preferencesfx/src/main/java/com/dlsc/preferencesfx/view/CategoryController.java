@@ -5,6 +5,10 @@ import static com.dlsc.preferencesfx.util.Constants.SCROLLBAR_SUBTRACT;
 import com.dlsc.preferencesfx.model.Category;
 import com.dlsc.preferencesfx.util.VisibilityProperty;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -27,9 +31,13 @@ public class CategoryController extends ScrollPane {
   private ObjectProperty<CategoryPresenter> displayedCategoryPresenter =
       new SimpleObjectProperty<>();
 
-  private HashMap<Category, CategoryView> views = new HashMap<>();
+  // access-ordered, so the least recently displayed view comes first
+  private LinkedHashMap<Category, CategoryView> views = new LinkedHashMap<>(16, 0.75f, true);
   private HashMap<Category, CategoryPresenter> presenters = new HashMap<>();
 
+  private Consumer<Category> viewLoader;
+  private int maxLoadedViews = 0;
+
   /**
    * Initializes the category controller.
    */
@@ -71,12 +79,20 @@ public class CategoryController extends ScrollPane {
   public boolean setView(final Category category) {
     LOGGER.trace("CategoryController, setView: " + category);
     CategoryView categoryView = views.get(category);
+    if (categoryView == null && viewLoader != null) { // view is loaded on demand
+      LOGGER.trace("Loading view of category: " + category);
+      viewLoader.accept(category);
+      categoryView = views.get(category);
+    }
     if (categoryView != null) { // view is loaded
       setContent(categoryView);
+      // a virtualized view only keeps the visible settings if it isn't taller than the viewport
+      setFitToHeight(categoryView.isVirtualized());
       // Binding for ScrollPane
       categoryView.minWidthProperty().bind(widthProperty().subtract(SCROLLBAR_SUBTRACT));
       displayedCategoryView.setValue(categoryView);
       displayedCategoryPresenter.setValue(getPresenter(category));
+      unloadLeastRecentlyUsedViews();
       return true;
     } else {
       LOGGER.info("Category " + category.getDescription() + " hasn't been loaded!");
@@ -92,14 +108,66 @@ public class CategoryController extends ScrollPane {
    * @return true if the view and presenter were unloaded and false if view doesn't exist.
    */
   public boolean unloadView(Category category) {
-    if (views.remove(category) == null | presenters.remove(category) == null) {
+    CategoryPresenter presenter = presenters.remove(category);
+    if (views.remove(category) == null | presenter == null) {
       LOGGER.info("Category " + category.getDescription() + " doesn't exist!");
       return false;
     } else {
+      presenter.dispose();
       return true;
     }
   }
 
+  /**
+   * Unloads the least recently displayed views, as long as more than {@code maxLoadedViews} views
+   * are loaded. The currently displayed view is never unloaded.
+   */
+  private void unloadLeastRecentlyUsedViews() {
+    if (maxLoadedViews <= 0) {
+      return;
+    }
+    // iterate over the entries, since get() would reorder an access-ordered map
+    Iterator<Map.Entry<Category, CategoryView>> iterator = views.entrySet().iterator();
+    int loadedViews = views.size();
+    while (loadedViews > maxLoadedViews && iterator.hasNext()) {
+      Map.Entry<Category, CategoryView> entry = iterator.next();
+      Category category = entry.getKey();
+      if (entry.getValue() != getDisplayedCategoryView()) {
+        LOGGER.trace("Unloading least recently used view of category: " + category);
+        iterator.remove();
+        presenters.remove(category).dispose();
+        loadedViews--;
+      }
+    }
+  }
+
+  /**
+   * Sets the callback which is used to create the view / presenter pair of a category on demand,
+   * when it is displayed but hasn't been loaded yet.
+   * The callback is expected to load the pair using {@link #addView}.
+   *
+   * @param viewLoader the callback creating and adding the view / presenter pair of a category
+   */
+  public void setViewLoader(Consumer<Category> viewLoader) {
+    this.viewLoader = viewLoader;
+  }
+
+  /**
+   * Limits how many view / presenter pairs are kept loaded at the same time.
+   * When the limit is exceeded, the least recently displayed views are unloaded again, to be
+   * recreated by the view loader once they are displayed again.
+   *
+   * @param maxLoadedViews the maximum amount of loaded views, 0 or less for no limit
+   */
+  public void setMaxLoadedViews(int maxLoadedViews) {
+    this.maxLoadedViews = maxLoadedViews;
+    unloadLeastRecentlyUsedViews();
+  }
+
+  public int getMaxLoadedViews() {
+    return maxLoadedViews;
+  }
+
   /**
    * Sets the view according to the current category in categoryProperty.
    * Must ensure that the category is already loaded, else it will fail.
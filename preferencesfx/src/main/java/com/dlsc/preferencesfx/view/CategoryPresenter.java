@@ -1,7 +1,10 @@
 package com.dlsc.preferencesfx.view;
 
+import com.dlsc.formsfx.model.structure.Field;
 import com.dlsc.formsfx.model.structure.Form;
 import com.dlsc.formsfx.model.util.BindingMode;
+import com.dlsc.formsfx.model.util.TranslationService;
+import com.dlsc.preferencesfx.formsfx.view.controls.SimpleControl;
 import com.dlsc.preferencesfx.formsfx.view.renderer.PreferencesFxGroup;
 import com.dlsc.preferencesfx.model.Category;
 import com.dlsc.preferencesfx.model.Group;
@@ -10,6 +13,7 @@ import com.dlsc.preferencesfx.model.Setting;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import javafx.beans.value.ChangeListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +33,20 @@ public class CategoryPresenter implements Presenter {
   private final BreadCrumbPresenter breadCrumbPresenter;
   private Form form;
 
+  private final Runnable groupDescriptionListener = this::updateGroupDescriptions;
+  private final Runnable breadCrumbListener = this::updateBreadCrumbBar;
+  private final ChangeListener<Boolean> instantPersistenceListener =
+      (observable, oldPersistence, newPersistence) -> applyInstantPersistence(newPersistence, form);
+  private final ChangeListener<TranslationService> i18nListener =
+      (observable, oldValue, newValue) -> {
+        if (oldValue != newValue) {
+          if (oldValue != null) {
+            removeLocaleListeners(oldValue);
+          }
+          translate(newValue);
+        }
+      };
+
   /**
    * Constructs a new presenter for the {@link CategoryView}.
    *
@@ -58,14 +76,17 @@ public class CategoryPresenter implements Presenter {
   public void initializeViewParts() {
     form = createForm();
     categoryView.initializeFormRenderer(form);
+    // the view may be created after the translation service was set or the search marked it
+    if (model.getTranslationService() != null) {
+      translate(model.getTranslationService());
+    }
+    categoryModel.refreshMarks();
     addI18nListener();
     addInstantPersistenceListener();
   }
 
   private void addInstantPersistenceListener() {
-    model.instantPersistentProperty().addListener((observable, oldPersistence, newPersistence) -> {
-      applyInstantPersistence(newPersistence, form);
-    });
+    model.instantPersistentProperty().addListener(instantPersistenceListener);
   }
 
   /**
@@ -73,16 +94,57 @@ public class CategoryPresenter implements Presenter {
    * Makes sure the group descriptions are updated with changing locale.
    */
   private void addI18nListener() {
-    model.translationServiceProperty().addListener((observable, oldValue, newValue) -> {
-      if (oldValue != newValue) {
-        form.i18n(newValue);
-        newValue.addListener(categoryModel::updateGroupDescriptions);
-        if (!Objects.equals(breadCrumbPresenter, null)) {
-          newValue.addListener(breadCrumbPresenter::setupBreadCrumbBar);
+    model.translationServiceProperty().addListener(i18nListener);
+  }
+
+  private void translate(TranslationService translationService) {
+    form.i18n(translationService);
+    translationService.addListener(groupDescriptionListener);
+    translationService.addListener(breadCrumbListener);
+    categoryModel.updateGroupDescriptions();
+  }
+
+  private void removeLocaleListeners(TranslationService translationService) {
+    translationService.removeListener(groupDescriptionListener);
+    translationService.removeListener(breadCrumbListener);
+  }
+
+  private void updateGroupDescriptions() {
+    categoryModel.updateGroupDescriptions();
+  }
+
+  private void updateBreadCrumbBar() {
+    if (!Objects.equals(breadCrumbPresenter, null)) {
+      breadCrumbPresenter.setupBreadCrumbBar();
+    }
+  }
+
+  /**
+   * Removes all listeners this presenter registered on the model, so it can be garbage collected
+   * after its view has been unloaded from the {@link CategoryController}.
+   * The controls of the settings are released, so their nodes can be garbage collected as well,
+   * and are set up again with new nodes if the category is displayed again.
+   */
+  void dispose() {
+    model.instantPersistentProperty().removeListener(instantPersistenceListener);
+    model.translationServiceProperty().removeListener(i18nListener);
+    if (model.getTranslationService() != null) {
+      removeLocaleListeners(model.getTranslationService());
+    }
+    releaseControls();
+  }
+
+  private void releaseControls() {
+    if (categoryModel.getGroups() == null) {
+      return;
+    }
+    for (Group group : categoryModel.getGroups()) {
+      for (Setting setting : group.getSettings()) {
+        if (setting.getElement() instanceof Field) {
+          ((SimpleControl) ((Field) setting.getElement()).getRenderer()).release();
         }
-        categoryModel.updateGroupDescriptions();
       }
-    });
+    }
   }
 
   /**
@@ -2,11 +2,15 @@ package com.dlsc.preferencesfx.view;
 
 import com.dlsc.formsfx.model.structure.Form;
 import com.dlsc.preferencesfx.formsfx.view.renderer.PreferencesFxFormRenderer;
+import com.dlsc.preferencesfx.formsfx.view.renderer.VirtualizedFormRenderer;
 import com.dlsc.preferencesfx.model.Category;
 import com.dlsc.preferencesfx.model.Group;
 import com.dlsc.preferencesfx.model.PreferencesFxModel;
 import com.dlsc.preferencesfx.model.Setting;
+import com.dlsc.preferencesfx.util.PreferencesFxUtils;
 import com.dlsc.preferencesfx.util.VisibilityProperty;
+import javafx.beans.property.BooleanProperty;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +27,7 @@ public class CategoryView extends StackPane implements View {
 
   private PreferencesFxModel model;
   private Category categoryModel;
-  private PreferencesFxFormRenderer preferencesFormRenderer;
+  private Region preferencesFormRenderer;
 
   /**
    * Initializes a new view of a {@link Category}.
@@ -38,7 +42,8 @@ public class CategoryView extends StackPane implements View {
   }
 
   /**
-   * Initializes the {@link PreferencesFxFormRenderer}.
+   * Initializes the {@link PreferencesFxFormRenderer}, or the {@link VirtualizedFormRenderer} if
+   * this view is virtualized.
    *
    * @param form to be rendered using the {@link PreferencesFxFormRenderer}
    * @implNote This can't be done in the constructor, since the form has to be initialized by the
@@ -46,10 +51,27 @@ public class CategoryView extends StackPane implements View {
    */
   void initializeFormRenderer(Form form) {
     getChildren().clear();
-    preferencesFormRenderer = new PreferencesFxFormRenderer(form);
+    if (isVirtualized()) {
+      preferencesFormRenderer = new VirtualizedFormRenderer(form);
+    } else {
+      preferencesFormRenderer = new PreferencesFxFormRenderer(form);
+    }
     getChildren().add(preferencesFormRenderer);
   }
 
+  /**
+   * Returns whether the category has enough settings to be rendered using the
+   * {@link VirtualizedFormRenderer}, see {@link PreferencesFxModel#setVirtualizationThreshold}.
+   * A virtualized view scrolls by itself, so it has to be fit to the height of its parent.
+   *
+   * @return true if the settings are rendered in a virtualized list
+   */
+  public boolean isVirtualized() {
+    int threshold = model.getVirtualizationThreshold();
+    return threshold > 0 && categoryModel.getGroups() != null
+        && PreferencesFxUtils.groupsToSettings(categoryModel.getGroups()).size() >= threshold;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -58,8 +80,9 @@ public class CategoryView extends StackPane implements View {
     VisibilityProperty visibilityProperty = this.categoryModel.visibilityProperty();
 
     if (visibilityProperty != null) {
-      this.visibleProperty().bind(visibilityProperty.get());
-      this.managedProperty().bind(visibilityProperty.get());
+      BooleanProperty visible = visibilityProperty.get();
+      this.visibleProperty().bind(visible);
+      this.managedProperty().bind(visible);
     }
   }
 
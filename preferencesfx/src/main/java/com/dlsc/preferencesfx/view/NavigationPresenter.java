@@ -4,6 +4,7 @@ import com.dlsc.preferencesfx.model.Category;
 import com.dlsc.preferencesfx.model.PreferencesFxModel;
 import com.dlsc.preferencesfx.util.SearchHandler;
 import java.util.stream.Collectors;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.ObservableList;
 import javafx.scene.control.TreeCell;
@@ -126,11 +127,12 @@ public class NavigationPresenter implements Presenter {
       categoryTreeItemMap.put(category, treeItem);
 
       if (category.visibilityProperty() != null) {
-        category.visibilityProperty().get().addListener((observableValue, aBoolean, newValue) -> {
+        BooleanProperty visible = category.visibilityProperty().get();
+        visible.addListener((observableValue, aBoolean, newValue) -> {
           parentTreeItem.changeChildItemVisibility(treeItem, newValue);
         });
         // immediately hide the category if it is not visible according to current value of visibilityProperty
-        if (!category.visibilityProperty().get().getValue()) {
+        if (!visible.getValue()) {
           parentTreeItem.changeChildItemVisibility(treeItem, false);
         }
       }
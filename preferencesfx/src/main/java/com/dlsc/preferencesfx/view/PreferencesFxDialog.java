@@ -56,7 +56,7 @@ public class PreferencesFxDialog extends DialogPane {
     persistWindowState = model.isPersistWindowState();
     saveSettings = model.isSaveSettings();
     storageHandler = model.getStorageHandler();
-    model.loadSettingValues();
+    model.loadSettingValues();  // has no effect if the values are already loaded
     layoutForm();
     setupDialogClose();
     loadLastWindowState();
@@ -0,0 +1,281 @@
+package com.dlsc.preferencesfx.history;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.dlsc.preferencesfx.model.Setting;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ListProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleListProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HistoryJournalTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path file;
+  private StringProperty string;
+  private IntegerProperty integer;
+  private ListProperty<String> list;
+  private ListProperty<Integer> numbers;
+  private List<Setting> settings;
+  private int maxSize;
+  private History history;
+
+  @Before
+  public void setUp() throws IOException {
+    file = folder.getRoot().toPath().resolve("history.journal");
+    string = new SimpleStringProperty("a");
+    integer = new SimpleIntegerProperty(1);
+    list = new SimpleListProperty<>(FXCollections.observableArrayList("x"));
+    numbers = new SimpleListProperty<>(FXCollections.observableArrayList());
+    settings = Arrays.asList(
+        Setting.of("String", string).customKey("string"),
+        Setting.of("Integer", integer).customKey("integer"),
+        Setting.of("List", FXCollections.observableArrayList("x", "y", "z"), list)
+            .customKey("list"),
+        Setting.of("Numbers", FXCollections.observableArrayList(1, 2, 3), numbers)
+            .customKey("numbers")
+    );
+    history = createHistory();
+  }
+
+  private History createHistory() {
+    History history = new History();
+    history.setMaxSize(maxSize);
+    settings.forEach(history::attachChangeListener);
+    history.setJournal(new HistoryJournal(file));
+    history.replayJournal(settings);
+    return history;
+  }
+
+  /**
+   * Simulates a restart of the application after saving, by creating new properties with the
+   * current values.
+   */
+  private void restart() {
+    history.markSaved();
+    history.getJournal().close();
+    restart(string.get(), integer.get(), list.get(), numbers.get());
+  }
+
+  /**
+   * Simulates a restart of the application, by creating new properties with the saved values.
+   */
+  private void restart(
+      String stringValue,
+      int integerValue,
+      List<String> listValue,
+      List<Integer> numbersValue
+  ) {
+    string = new SimpleStringProperty(stringValue);
+    integer = new SimpleIntegerProperty(integerValue);
+    list = new SimpleListProperty<>(FXCollections.observableArrayList(listValue));
+    numbers = new SimpleListProperty<>(FXCollections.observableArrayList(numbersValue));
+    settings = Arrays.asList(
+        Setting.of("String", string).customKey("string"),
+        Setting.of("Integer", integer).customKey("integer"),
+        Setting.of("List", FXCollections.observableArrayList("x", "y", "z"), list)
+            .customKey("list"),
+        Setting.of("Numbers", FXCollections.observableArrayList(1, 2, 3), numbers)
+            .customKey("numbers")
+    );
+    history = createHistory();
+  }
+
+  @Test
+  public void changesAreRestoredAfterRestart() {
+    string.set("b");
+    integer.set(2);
+    list.add("y");
+    history.undo();
+
+    restart();
+
+    assertThat(history.getChanges().size(), is(3));
+    assertThat(history.isRedoAvailable(), is(true));
+    history.redo();
+    assertThat(list.get(), is(FXCollections.observableArrayList("x", "y")));
+    history.undoAll();
+    assertThat(string.get(), is("a"));
+    assertThat(integer.get(), is(1));
+    assertThat(list.get(), is(FXCollections.observableArrayList("x")));
+    history.redoAll();
+    assertThat(string.get(), is("b"));
+    assertThat(integer.get(), is(2));
+    assertThat(list.get(), is(FXCollections.observableArrayList("x", "y")));
+  }
+
+  @Test
+  public void unsavedChangesCanBeRedoneAfterRestart() {
+    list.add("y");
+    string.set("b");
+    history.markSaved();
+    list.add("z");
+    integer.set(2);
+
+    // the application quits without saving the last changes
+    history.getJournal().close();
+    restart("b", 1, Arrays.asList("x", "y"), numbers.get());
+
+    assertThat(history.getChanges().size(), is(4));
+    assertThat(history.isRedoAvailable(), is(true));
+    history.undoAll();
+    assertThat(string.get(), is("a"));
+    assertThat(list.get(), is(FXCollections.observableArrayList("x")));
+    history.redoAll();
+    assertThat(string.get(), is("b"));
+    assertThat(integer.get(), is(2));
+    assertThat(list.get(), is(FXCollections.observableArrayList("x", "y", "z")));
+
+    // the journal continues from the replayed position
+    restart();
+    assertThat(history.isRedoAvailable(), is(false));
+    history.undoAll();
+    assertThat(integer.get(), is(1));
+    assertThat(list.get(), is(FXCollections.observableArrayList("x")));
+  }
+
+  @Test
+  public void compoundedAndTransactionChangesAreRestored() {
+    string.set("b");
+    string.set("c");
+    history.doAsTransaction(() -> {
+      integer.set(2);
+      list.add("z");
+    });
+
+    restart();
+
+    assertThat(history.getChanges().size(), is(2));
+    assertThat(history.getChanges().get(1) instanceof CompoundChange, is(true));
+    history.undo();
+    assertThat(integer.get(), is(1));
+    assertThat(list.get(), is(FXCollections.observableArrayList("x")));
+    history.undo();
+    assertThat(string.get(), is("a"));
+  }
+
+  @Test
+  public void clearIsRestored() {
+    string.set("b");
+    history.clear(false);
+
+    restart();
+
+    assertThat(history.getChanges().isEmpty(), is(true));
+  }
+
+  @Test
+  public void journalIsCompacted() throws IOException {
+    maxSize = 3;
+    history.setMaxSize(maxSize);
+    history.getJournal().setCompactionThreshold(10);
+    for (int i = 2; i <= 30; i++) {
+      integer.set(i);
+      string.set("s" + i);
+    }
+    history.undo();
+    history.getJournal().flush();
+
+    // at most the lines since the last compaction and the changes kept after it
+    assertThat(Files.readAllLines(file).size() < 10 + 3, is(true));
+    restart();
+    assertThat(history.getChanges().size(), is(3));
+    assertThat(string.get(), is("s29"));
+    history.undo();
+    assertThat(integer.get(), is(29));
+    history.redoAll();
+    assertThat(string.get(), is("s30"));
+  }
+
+  @Test
+  public void unreadableLinesAreSkipped() throws IOException {
+    string.set("b");
+    history.getJournal().close();
+    Files.write(file, "{\"op\":\"add\",\"entr".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.APPEND);
+
+    restart();
+
+    assertThat(history.getChanges().size(), is(1));
+    integer.set(2);
+    restart();
+    assertThat(history.getChanges().size(), is(2));
+    history.undoAll();
+    assertThat(string.get(), is("a"));
+    assertThat(integer.get(), is(1));
+  }
+
+  @Test
+  public void listChangesAreJournaledAsDeltas() throws IOException {
+    string.set("b");
+    list.addAll("y", "z");
+    string.set("c");
+    list.remove("x");
+    string.set("d");
+    FXCollections.reverse(list);
+    history.undo();
+    history.undo();
+    history.getJournal().flush();
+
+    String journal = String.join("\n", Files.readAllLines(file));
+    assertThat(journal.contains("\"deltas\""), is(true));
+    assertThat(journal.contains("[\"x\",\"y\",\"z\"]"), is(false));
+
+    restart();
+
+    assertThat(history.getChanges().size(), is(6));
+    history.undoAll();
+    assertThat(list.get(), is(FXCollections.observableArrayList("x")));
+    history.redoAll();
+    assertThat(list.get(), is(FXCollections.observableArrayList("z", "y")));
+    Change change = history.getChanges().get(1);
+    assertThat(change.getNewList(), is(FXCollections.observableArrayList("y", "z")));
+  }
+
+  @Test
+  public void typeOfValuesIsRestoredWithoutCurrentElements() {
+    numbers.add(2);
+    history.undo();
+    assertThat(numbers.isEmpty(), is(true));
+
+    restart();
+
+    history.redo();
+    assertThat(numbers.get(), is(FXCollections.observableArrayList(2)));
+  }
+
+  @Test
+  public void removedChangesAreNotRestored() {
+    string.set("b");
+    history.doAsTransaction(() -> {
+      integer.set(2);
+      string.set("c");
+    });
+    integer.set(3);
+    history.removeChanges(settings.get(1));
+
+    restart();
+
+    assertThat(history.getChanges().size(), is(2));
+    history.undoAll();
+    assertThat(string.get(), is("a"));
+    assertThat(integer.get(), is(3));
+  }
+}
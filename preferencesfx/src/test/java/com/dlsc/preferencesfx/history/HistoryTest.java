@@ -1,5 +1,11 @@
 package com.dlsc.preferencesfx.history;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -7,9 +13,21 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.dlsc.preferencesfx.model.Setting;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ListProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -106,4 +124,280 @@ public class HistoryTest {
   @Test
   public void clear() {
   }
+
+  @Test
+  public void maxSizeEvictsOldestChanges() {
+    IntegerProperty first = new SimpleIntegerProperty(0);
+    IntegerProperty second = new SimpleIntegerProperty(0);
+    history.attachChangeListener(Setting.of("first", first));
+    history.attachChangeListener(Setting.of("second", second));
+    history.setMaxSize(2);
+
+    first.set(1);
+    second.set(1);
+    first.set(2);
+    assertThat(history.getChanges().size(), is(2));
+
+    history.undoAll();
+    assertThat(first.get(), is(1));
+    assertThat(second.get(), is(0));
+    assertThat(history.isUndoAvailable(), is(false));
+
+    history.redoAll();
+    assertThat(first.get(), is(2));
+    assertThat(second.get(), is(1));
+  }
+
+  @Test
+  public void listChangesOnlyKeepTheirDifferences() {
+    ListProperty<String> list = new SimpleListProperty<>(FXCollections.observableArrayList("a"));
+    Setting setting = Setting.of("list", FXCollections.observableArrayList("a", "b"), list);
+    Setting other = Setting.of("other", property);
+    history.attachChangeListener(setting);
+    history.attachChangeListener(other);
+
+    list.add("b");
+    property.set("x");
+    list.remove("a");
+    property.set("y");
+    list.add("c");
+
+    Change first = history.getChanges().get(0);
+    Change second = history.getChanges().get(2);
+    Change last = history.getChanges().get(4);
+    assertThat(first.getNewList(), is(FXCollections.observableArrayList("b")));
+    assertThat(second.getOldList(), is(FXCollections.observableArrayList("a")));
+    assertThat(second.getNewList().isEmpty(), is(true));
+    assertThat(last.getNewList(), is(FXCollections.observableArrayList("c")));
+
+    history.undoAll();
+    assertThat(list.get(), is(FXCollections.observableArrayList("a")));
+    history.redoAll();
+    assertThat(list.get(), is(FXCollections.observableArrayList("b", "c")));
+  }
+
+  @Test
+  public void listChangesAreRecordedAsDeltas() {
+    ObservableList<String> items = FXCollections.observableArrayList("a", "b", "c", "d");
+    ListProperty<String> list = new SimpleListProperty<>(FXCollections.observableArrayList("a"));
+    Setting setting = Setting.of("list", items, list);
+    Setting other = Setting.of("other", property);
+    history.attachChangeListener(setting);
+    history.attachChangeListener(other);
+
+    list.add("b");
+    list.add("c");
+    property.set("x");
+    list.remove("a");
+    FXCollections.sort(list, Comparator.reverseOrder());
+
+    assertThat(history.getChanges().size(), is(3));
+    Change first = history.getChanges().get(0);
+    assertThat(first, instanceOf(ListChange.class));
+    assertThat(((ListChange) first).getRemoved().isEmpty(), is(true));
+    assertThat(((ListChange) first).getAdded(), is(FXCollections.observableArrayList("b", "c")));
+    assertThat(first.getOldList().isEmpty(), is(true));
+    assertThat(first.getNewList(), is(FXCollections.observableArrayList("b", "c")));
+    assertThat(list.get(), is(FXCollections.observableArrayList("c", "b")));
+
+    history.undo();
+    assertThat(list.get(), is(FXCollections.observableArrayList("a", "b", "c")));
+    history.undoAll();
+    assertThat(list.get(), is(FXCollections.observableArrayList("a")));
+    history.redoAll();
+    assertThat(list.get(), is(FXCollections.observableArrayList("c", "b")));
+  }
+
+  @Test
+  public void listChangesAreNotReplayedAfterTheListWasModifiedElsewhere() {
+    ListProperty<String> list = new SimpleListProperty<>(FXCollections.observableArrayList("a"));
+    Setting setting = Setting.of("list", FXCollections.observableArrayList("a", "b"), list);
+    history.attachChangeListener(setting);
+
+    list.add("b");
+    // e.g. when the value is reloaded from the storage
+    history.doWithoutListeners(setting, list::clear);
+    history.undo();
+    assertThat(list.get().isEmpty(), is(true));
+
+    // the size of the list is the expected one, but its modification stamp is not
+    list.add("c");
+    history.doWithoutListeners(setting, () -> list.set(0, "d"));
+    history.undo();
+    assertThat(list.get(), is(FXCollections.observableArrayList("d")));
+
+    list.add("e");
+    history.undo();
+    assertThat(list.get(), is(FXCollections.observableArrayList("d")));
+    history.redo();
+    assertThat(list.get(), is(FXCollections.observableArrayList("d", "e")));
+  }
+
+  @Test
+  public void changeListenerIsOnlyAttachedOnce() {
+    ListProperty<String> list = new SimpleListProperty<>(FXCollections.observableArrayList("a"));
+    Setting setting = Setting.of("list", FXCollections.observableArrayList("a", "b"), list);
+    history.attachChangeListener(setting);
+    history.attachChangeListener(setting);
+
+    list.add("b");
+    history.undo();
+    assertThat(list.get(), is(FXCollections.observableArrayList("a")));
+  }
+
+  @Test
+  public void coalescingWindow() throws InterruptedException {
+    DoubleProperty slider = new SimpleDoubleProperty(0);
+    history.attachChangeListener(Setting.of("slider", slider, 0, 10, 1));
+
+    history.setCoalescingWindow(TimeUnit.HOURS.toMillis(1));
+    slider.set(1);
+    Change change = history.getChanges().get(0);
+    slider.set(2);
+    slider.set(3);
+    assertThat(history.getChanges().size(), is(1));
+    assertThat(history.getChanges().get(0), is(sameInstance(change)));
+    assertThat(change.getNewValue(), is(3d));
+
+    history.setCoalescingWindow(1);
+    Thread.sleep(10);
+    slider.set(4);
+    assertThat(history.getChanges().size(), is(2));
+
+    history.undoAll();
+    assertThat(slider.get(), is(0d));
+  }
+
+  @Test
+  public void transactionIsUndoneAndRedoneAtOnce() {
+    IntegerProperty first = new SimpleIntegerProperty(0);
+    IntegerProperty second = new SimpleIntegerProperty(0);
+    history.attachChangeListener(Setting.of("first", first));
+    history.attachChangeListener(Setting.of("second", second));
+
+    first.set(1);
+    history.doAsTransaction(() -> {
+      first.set(2);
+      second.set(1);
+      second.set(2);
+    });
+    assertThat(history.getChanges().size(), is(2));
+    assertThat(history.getChanges().get(1) instanceof CompoundChange, is(true));
+
+    history.undo();
+    assertThat(first.get(), is(1));
+    assertThat(second.get(), is(0));
+
+    history.redo();
+    assertThat(first.get(), is(2));
+    assertThat(second.get(), is(2));
+  }
+
+  @Test
+  public void followUpsAreRecordedAndMergedWithTheirChange() {
+    IntegerProperty base = new SimpleIntegerProperty(0);
+    IntegerProperty doubled = new SimpleIntegerProperty(0);
+    IntegerProperty other = new SimpleIntegerProperty(0);
+    Setting baseSetting = Setting.of("base", base);
+    history.attachChangeListener(baseSetting);
+    history.attachChangeListener(Setting.of("doubled", doubled));
+    history.attachChangeListener(Setting.of("other", other));
+    List<Setting> followedUp = new ArrayList<>();
+    history.setFollowUpHandler(baseSetting::equals, setting -> {
+      followedUp.add(setting);
+      doubled.set(base.get() * 2);
+    });
+
+    for (int i = 1; i <= 10; i++) {
+      base.set(i);
+    }
+    assertThat(history.getChanges().size(), is(1));
+    assertThat(history.getChanges().get(0), is(instanceOf(CompoundChange.class)));
+    assertThat(followedUp.size(), is(10));
+
+    // settings without follow-ups are recorded without a transaction
+    for (int i = 1; i <= 10; i++) {
+      other.set(i);
+    }
+    assertThat(history.getChanges().size(), is(2));
+    assertThat(history.getChanges().get(1), is(not(instanceOf(CompoundChange.class))));
+    assertThat(followedUp.size(), is(10));
+
+    history.setCoalescingWindow(TimeUnit.HOURS.toMillis(1));
+    for (int i = 11; i <= 20; i++) {
+      base.set(i);
+    }
+    assertThat(history.getChanges().size(), is(3));
+
+    history.undoAll();
+    assertThat(base.get(), is(0));
+    assertThat(doubled.get(), is(0));
+    assertThat(other.get(), is(0));
+    history.redo();
+    assertThat(base.get(), is(10));
+    assertThat(doubled.get(), is(20));
+    history.redoAll();
+    assertThat(base.get(), is(20));
+    assertThat(doubled.get(), is(40));
+    assertThat(other.get(), is(10));
+  }
+
+  @Test
+  public void transactionIsRecordedWhenTheActionFails() {
+    IntegerProperty first = new SimpleIntegerProperty(0);
+    IntegerProperty second = new SimpleIntegerProperty(0);
+    history.attachChangeListener(Setting.of("first", first));
+    history.attachChangeListener(Setting.of("second", second));
+
+    IllegalStateException exception = new IllegalStateException();
+    try {
+      history.doAsTransaction(() -> {
+        first.set(1);
+        second.set(1);
+        throw exception;
+      });
+      fail("The exception of the action was not rethrown");
+    } catch (IllegalStateException e) {
+      assertThat(e, is(sameInstance(exception)));
+    }
+    assertThat(history.isInTransaction(), is(false));
+    assertThat(history.getChanges().size(), is(1));
+
+    history.undo();
+    assertThat(first.get(), is(0));
+    assertThat(second.get(), is(0));
+
+    second.set(2);
+    assertThat(history.getChanges().size(), is(1));
+    assertThat(history.getChanges().get(0).getNewValue(), is(2));
+  }
+
+  @Test
+  public void removeChanges() {
+    IntegerProperty first = new SimpleIntegerProperty(0);
+    IntegerProperty second = new SimpleIntegerProperty(0);
+    Setting firstSetting = Setting.of("first", first);
+    history.attachChangeListener(firstSetting);
+    history.attachChangeListener(Setting.of("second", second));
+
+    first.set(1);
+    second.set(1);
+    history.doAsTransaction(() -> {
+      first.set(2);
+      second.set(2);
+    });
+    first.set(3);
+    history.undo();
+
+    history.removeChanges(firstSetting);
+    assertThat(history.getChanges().size(), is(2));
+    assertThat(history.isRedoAvailable(), is(false));
+
+    history.undoAll();
+    assertThat(first.get(), is(2));
+    assertThat(second.get(), is(0));
+    history.redoAll();
+    assertThat(first.get(), is(2));
+    assertThat(second.get(), is(2));
+  }
 }
@@ -1,5 +1,21 @@
 package com.dlsc.preferencesfx.model;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.dlsc.preferencesfx.history.History;
+import com.dlsc.preferencesfx.util.SearchHandler;
+import com.dlsc.preferencesfx.util.StorageHandlerImpl;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -11,8 +27,30 @@ import org.junit.Test;
  */
 public class PreferencesFxModelTest {
 
+  private RecordingStorageHandler storageHandler;
+  private StringProperty stringProperty;
+  private IntegerProperty integerProperty;
+  private PreferencesFxModel model;
+
   @Before
   public void setUp() throws Exception {
+    storageHandler = new RecordingStorageHandler();
+    stringProperty = new SimpleStringProperty("a");
+    integerProperty = new SimpleIntegerProperty(1);
+    model = new PreferencesFxModel(
+        storageHandler, new SearchHandler(), new History(), new Category[] {
+            Category.of("Category",
+                Setting.of("String", stringProperty),
+                Setting.of("Integer", integerProperty)
+            )
+        }
+    );
+    model.loadSettingValues();
+  }
+
+  @After
+  public void tearDown() {
+    storageHandler.clearPreferences();
   }
 
   @Test
@@ -26,4 +64,237 @@ public class PreferencesFxModelTest {
   @Test
   public void loadSelectedCategory() {
   }
+
+  @Test
+  public void saveSettingsOnlySavesChangedSettings() {
+    model.saveSettings();
+    assertThat(storageHandler.batches.size(), is(0));
+
+    stringProperty.set("b");
+    model.saveSettings();
+    assertThat(storageHandler.batches.size(), is(1));
+    assertThat(storageHandler.batches.get(0).size(), is(1));
+    assertThat(storageHandler.batches.get(0).containsValue("b"), is(true));
+
+    // changed and changed back again since the last save
+    integerProperty.set(2);
+    integerProperty.set(1);
+    model.saveSettings();
+    assertThat(storageHandler.batches.size(), is(1));
+  }
+
+  @Test
+  public void saveAllSettingsSavesUnchangedSettings() {
+    model.saveAllSettings();
+    assertThat(storageHandler.batches.size(), is(1));
+    assertThat(storageHandler.batches.get(0).size(), is(2));
+  }
+
+  @Test
+  public void autoSaveWritesChangesInTheBackground() throws InterruptedException {
+    model.setAutoSave(true, TimeUnit.HOURS.toMillis(1));
+    stringProperty.set("b");
+    stringProperty.set("c");
+    model.saveSettings();
+    assertThat(storageHandler.batches.size(), is(0));
+
+    assertThat(model.flushAutoSave(10, TimeUnit.SECONDS), is(true));
+    assertThat(storageHandler.batches.size(), is(1));
+    assertThat(storageHandler.batches.get(0).size(), is(1));
+    assertThat(storageHandler.batches.get(0).containsValue("c"), is(true));
+    model.setAutoSave(false, 0);
+  }
+
+  @Test
+  public void transactionIsAutoSavedAtOnce() throws InterruptedException {
+    model.setAutoSave(true, 0);
+    model.doAsTransaction(() -> {
+      stringProperty.set("b");
+      integerProperty.set(2);
+    });
+    assertThat(model.flushAutoSave(10, TimeUnit.SECONDS), is(true));
+    assertThat(storageHandler.batches.size(), is(1));
+    assertThat(storageHandler.batches.get(0).size(), is(2));
+
+    model.getHistory().undo();
+    assertThat(stringProperty.get(), is("a"));
+    assertThat(integerProperty.get(), is(1));
+    model.setAutoSave(false, 0);
+  }
+
+  @Test
+  public void derivedValuesAreRecordedWithTheirChange() throws InterruptedException {
+    IntegerProperty base = new SimpleIntegerProperty(1);
+    IntegerProperty doubled = new SimpleIntegerProperty(2);
+    Setting baseSetting = Setting.of("Base", base);
+    Setting doubledSetting = Setting.of("Doubled", doubled)
+        .deriveValue(() -> base.get() * 2, baseSetting);
+    PreferencesFxModel model = new PreferencesFxModel(
+        storageHandler, new SearchHandler(), new History(), new Category[] {
+            Category.of("Derived", baseSetting, doubledSetting)
+        }
+    );
+    model.loadSettingValues();
+    model.setAutoSave(true, 0);
+
+    base.set(3);
+    assertThat(doubled.get(), is(6));
+    assertThat(model.getHistory().getChanges().size(), is(1));
+    assertThat(model.flushAutoSave(10, TimeUnit.SECONDS), is(true));
+    assertThat(storageHandler.batches.stream().mapToInt(Map::size).sum(), is(2));
+
+    model.getHistory().undo();
+    assertThat(base.get(), is(1));
+    assertThat(doubled.get(), is(2));
+    model.getHistory().redo();
+    assertThat(base.get(), is(3));
+    assertThat(doubled.get(), is(6));
+
+    // derived values can still be changed on their own
+    doubled.set(5);
+    assertThat(model.getHistory().getChanges().size(), is(2));
+    model.getHistory().undo();
+    assertThat(doubled.get(), is(6));
+    model.setAutoSave(false, 0);
+  }
+
+  @Test
+  public void conditionsAreEvaluatedOncePerChange() {
+    IntegerProperty base = new SimpleIntegerProperty(1);
+    IntegerProperty doubled = new SimpleIntegerProperty(2);
+    AtomicInteger baseEvaluations = new AtomicInteger();
+    AtomicInteger doubledEvaluations = new AtomicInteger();
+    Setting baseSetting = Setting.of("Base", base);
+    Setting doubledSetting = Setting.of("Doubled", doubled)
+        .deriveValue(() -> base.get() * 2, baseSetting)
+        .visibleIf(() -> baseEvaluations.incrementAndGet() > 0, baseSetting);
+    Setting otherSetting = Setting.of("Other", new SimpleIntegerProperty(0))
+        .visibleIf(() -> doubledEvaluations.incrementAndGet() > 0, doubledSetting);
+    PreferencesFxModel model = new PreferencesFxModel(
+        storageHandler, new SearchHandler(), new History(), new Category[] {
+            Category.of("Conditions", baseSetting, doubledSetting, otherSetting)
+        }
+    );
+    model.loadSettingValues();
+    baseEvaluations.set(0);
+    doubledEvaluations.set(0);
+
+    base.set(3);
+    assertThat(doubled.get(), is(6));
+    assertThat(baseEvaluations.get(), is(1));
+    assertThat(doubledEvaluations.get(), is(1));
+  }
+
+  @Test
+  public void reloadSettingValuesOnlyUpdatesChangedSettings() {
+    Setting stringSetting = model.getCategories().get(0).getGroups().get(0).getSettings().get(0);
+    integerProperty.set(2);
+    storageHandler.saveObject(stringSetting.getStorageKey(), "c");
+
+    // loading again has no effect
+    model.loadSettingValues();
+    assertThat(stringProperty.get(), is("a"));
+
+    assertThat(model.reloadSettingValues(), is(1));
+    assertThat(stringProperty.get(), is("c"));
+    assertThat(integerProperty.get(), is(2));
+    // the reloaded value is neither recorded in the history nor saved again
+    assertThat(model.getHistory().getChanges().size(), is(1));
+    model.saveSettings();
+    assertThat(storageHandler.batches.size(), is(1));
+    assertThat(storageHandler.batches.get(0).size(), is(1));
+    assertThat(storageHandler.batches.get(0).containsValue(2), is(true));
+
+    assertThat(model.reloadSettingValues(), is(0));
+  }
+
+  @Test
+  public void reloadSettingValuesKeepsUnsavedChanges() {
+    Setting stringSetting = model.getCategories().get(0).getGroups().get(0).getSettings().get(0);
+    stringProperty.set("b");
+    storageHandler.saveObject(stringSetting.getStorageKey(), "c");
+
+    assertThat(model.reloadSettingValues(), is(0));
+    assertThat(stringProperty.get(), is("b"));
+    assertThat(model.getHistory().getChanges().size(), is(1));
+
+    model.saveSettings();
+    assertThat(storageHandler.batches.get(0).get(stringSetting.getStorageKey()), is("b"));
+  }
+
+  @Test
+  public void reloadSettingValuesRemovesTheHistoryOfUpdatedSettings() {
+    Setting stringSetting = model.getCategories().get(0).getGroups().get(0).getSettings().get(0);
+    integerProperty.set(2);
+    stringProperty.set("b");
+    integerProperty.set(3);
+    // changed back to the saved value, so there are no unsaved changes
+    stringProperty.set("a");
+    storageHandler.saveObject(stringSetting.getStorageKey(), "c");
+
+    assertThat(model.reloadSettingValues(), is(1));
+    assertThat(stringProperty.get(), is("c"));
+    assertThat(model.getHistory().getChanges().size(), is(2));
+
+    model.getHistory().undoAll();
+    assertThat(integerProperty.get(), is(1));
+    assertThat(stringProperty.get(), is("c"));
+  }
+
+  @Test
+  public void externallyChangedSettingsAreReloaded() throws InterruptedException {
+    Setting stringSetting = model.getCategories().get(0).getGroups().get(0).getSettings().get(0);
+    model.setFxExecutor(Runnable::run);
+    assertThat(model.setWatchExternalChanges(true), is(true));
+    try {
+      // another instance of the application
+      new StorageHandlerImpl(PreferencesFxModelTest.class)
+          .saveObject(stringSetting.getStorageKey(), "c");
+
+      long deadline = System.currentTimeMillis() + 5000;
+      while (!"c".equals(stringProperty.get()) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(stringProperty.get(), is("c"));
+      assertThat(integerProperty.get(), is(1));
+      assertThat(model.getHistory().getChanges().size(), is(0));
+    } finally {
+      model.setWatchExternalChanges(false);
+    }
+  }
+
+  @Test
+  public void valuesBeingSavedAutomaticallyAreNotReloaded() throws InterruptedException {
+    model.setAutoSave(true, TimeUnit.HOURS.toMillis(1));
+    try {
+      stringProperty.set("b");
+      assertThat(model.flushAutoSave(10, TimeUnit.SECONDS), is(true));
+      // e.g. when the change of the first write is noticed while the value is still changing
+      stringProperty.set("c");
+      assertThat(model.reloadSettingValues(), is(0));
+      assertThat(stringProperty.get(), is("c"));
+      assertThat(model.getHistory().getChanges().size(), is(1));
+
+      assertThat(model.flushAutoSave(10, TimeUnit.SECONDS), is(true));
+      assertThat(model.reloadSettingValues(), is(0));
+      assertThat(stringProperty.get(), is("c"));
+      assertThat(model.getHistory().isUndoAvailable(), is(true));
+    } finally {
+      model.setAutoSave(false, 0);
+    }
+  }
+
+  private static class RecordingStorageHandler extends StorageHandlerImpl {
+    private final List<Map<String, Object>> batches = new CopyOnWriteArrayList<>();
+
+    RecordingStorageHandler() {
+      super(PreferencesFxModelTest.class);
+    }
+
+    @Override
+    public void saveAll(Map<String, Object> objects) {
+      batches.add(objects);
+      super.saveAll(objects);
+    }
+  }
 }
@@ -0,0 +1,117 @@
+package com.dlsc.preferencesfx.model;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.dlsc.formsfx.model.structure.Field;
+import com.dlsc.preferencesfx.util.PreferencesFxUtils;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@link SettingDependencies}.
+ */
+public class SettingDependenciesTest {
+
+  private IntegerProperty base;
+  private IntegerProperty doubled;
+  private IntegerProperty sum;
+  private BooleanProperty enabled;
+  private Setting baseSetting;
+  private Setting doubledSetting;
+  private Setting sumSetting;
+  private Setting enabledSetting;
+  private boolean deriveValues;
+
+  @Before
+  public void setUp() {
+    base = new SimpleIntegerProperty(1);
+    doubled = new SimpleIntegerProperty(2);
+    sum = new SimpleIntegerProperty(3);
+    enabled = new SimpleBooleanProperty(true);
+    baseSetting = Setting.of("Base", base);
+    doubledSetting = Setting.of("Doubled", doubled);
+    sumSetting = Setting.of("Sum", sum);
+    enabledSetting = Setting.of("Enabled", enabled);
+    deriveValues = true;
+  }
+
+  private SettingDependencies createDependencies(Category... categories) {
+    return new SettingDependencies(
+        PreferencesFxUtils.flattenCategories(Arrays.asList(categories)),
+        () -> deriveValues
+    );
+  }
+
+  @Test
+  public void derivedValuesArePropagatedInOnePass() {
+    AtomicInteger sumEvaluations = new AtomicInteger();
+    // declared before the value it depends on
+    sumSetting.deriveValue(() -> {
+      sumEvaluations.incrementAndGet();
+      return base.get() + doubled.get();
+    }, baseSetting, doubledSetting);
+    doubledSetting.deriveValue(() -> base.get() * 2, baseSetting);
+    createDependencies(Category.of("Category", sumSetting, doubledSetting, baseSetting));
+
+    base.set(5);
+    assertThat(doubled.get(), is(10));
+    assertThat(sum.get(), is(15));
+    assertThat(sumEvaluations.get(), is(1));
+
+    // derived values can still be changed
+    doubled.set(1);
+    assertThat(base.get(), is(5));
+    assertThat(sum.get(), is(6));
+  }
+
+  @Test
+  public void conditionsAreUpdated() {
+    Group group = Group.of("Group", sumSetting)
+        .visibleIf(() -> enabled.get() && base.get() > 0, enabledSetting, baseSetting);
+    doubledSetting.editableIf(() -> enabled.get(), enabledSetting);
+    enabled.set(false);
+    createDependencies(
+        Category.of("Category", group),
+        Category.of("Other", enabledSetting, baseSetting, doubledSetting)
+    );
+
+    BooleanProperty groupVisible = group.getVisibilityProperty().get();
+    Field doubledField = (Field) doubledSetting.getElement();
+    assertThat(groupVisible.get(), is(false));
+    assertThat(doubledField.isEditable(), is(false));
+
+    enabled.set(true);
+    assertThat(groupVisible.get(), is(true));
+    assertThat(doubledField.isEditable(), is(true));
+
+    base.set(-1);
+    assertThat(groupVisible.get(), is(false));
+  }
+
+  @Test
+  public void valuesAreOnlyDerivedIfEnabled() {
+    doubledSetting.deriveValue(() -> base.get() * 2, baseSetting);
+    doubledSetting.editableIf(() -> base.get() > 2, baseSetting);
+    createDependencies(Category.of("Category", baseSetting, doubledSetting));
+
+    deriveValues = false;
+    base.set(4);
+    assertThat(doubled.get(), is(2));
+    assertThat(((Field) doubledSetting.getElement()).isEditable(), is(true));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void cyclesAreDetected() {
+    baseSetting.deriveValue(() -> sum.get(), sumSetting);
+    doubledSetting.deriveValue(() -> base.get() * 2, baseSetting);
+    sumSetting.deriveValue(() -> doubled.get() + 1, doubledSetting);
+    createDependencies(Category.of("Category", baseSetting, doubledSetting, sumSetting));
+  }
+}
@@ -0,0 +1,81 @@
+package com.dlsc.preferencesfx.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@link AutoSaver}.
+ */
+public class AutoSaverTest {
+
+  private final List<Map<String, Object>> batches = new CopyOnWriteArrayList<>();
+  private StorageHandlerImpl storageHandler;
+  private AutoSaver autoSaver;
+
+  @Before
+  public void setUp() {
+    storageHandler = new StorageHandlerImpl(AutoSaverTest.class) {
+      @Override
+      public void saveAll(Map<String, Object> objects) {
+        batches.add(objects);
+        super.saveAll(objects);
+      }
+    };
+    autoSaver = new AutoSaver(storageHandler, TimeUnit.HOURS.toMillis(1));
+  }
+
+  @After
+  public void tearDown() {
+    autoSaver.shutdown();
+    storageHandler.clearPreferences();
+  }
+
+  @Test
+  public void coalescesValuesOfTheSameKey() throws InterruptedException {
+    autoSaver.saveAll(Collections.singletonMap("foo", 1));
+    autoSaver.saveAll(Collections.singletonMap("bar", "a"));
+    autoSaver.saveAll(Collections.singletonMap("foo", 2));
+    assertThat(batches.size(), is(0));
+
+    assertThat(autoSaver.flush(10, TimeUnit.SECONDS), is(true));
+    assertThat(batches.size(), is(1));
+    assertThat(batches.get(0).size(), is(2));
+    assertThat(storageHandler.loadObject("foo", Integer.class, 0), is(2));
+    assertThat(storageHandler.loadObject("bar", String.class, ""), is("a"));
+
+    // nothing left to write
+    assertThat(autoSaver.flush(10, TimeUnit.SECONDS), is(true));
+    assertThat(batches.size(), is(1));
+  }
+
+  @Test
+  public void knowsWhichKeysAreBeingSaved() throws InterruptedException {
+    autoSaver.saveAll(Collections.singletonMap("foo", 1));
+    assertThat(autoSaver.isSaving("foo"), is(true));
+    assertThat(autoSaver.isSaving("bar"), is(false));
+
+    assertThat(autoSaver.flush(10, TimeUnit.SECONDS), is(true));
+    assertThat(autoSaver.isSaving("foo"), is(false));
+  }
+
+  @Test
+  public void writesAfterDelay() throws InterruptedException {
+    autoSaver.shutdown();
+    autoSaver = new AutoSaver(storageHandler, 0);
+    autoSaver.saveAll(Collections.singletonMap("foo", 1));
+    long end = System.currentTimeMillis() + 10_000;
+    while (batches.isEmpty() && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+    assertThat(batches.size(), is(1));
+  }
+}
@@ -0,0 +1,114 @@
+package com.dlsc.preferencesfx.util;
+
+import static java.util.Arrays.asList;
+import static javafx.collections.FXCollections.observableArrayList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.dlsc.preferencesfx.util.StorageHandlerImplTest.SomeObject;
+import com.dlsc.preferencesfx.util.StorageHandlerImplTest.TestEnum;
+import com.google.gson.Gson;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@link BinaryStorageHandler}.
+ */
+public class BinaryStorageHandlerTest {
+
+  private BinaryStorageHandler storageHandler;
+
+  @Before
+  public void setUp() {
+    storageHandler = new BinaryStorageHandler(BinaryStorageHandlerTest.class);
+  }
+
+  @After
+  public void tearDown() {
+    storageHandler.clearPreferences();
+  }
+
+  @Test
+  public void valuesAreDeserializedAsTheirType() {
+    List<Object> values = asList(
+        "", "text with \"quotes\" and ä", 0, -5, Integer.MAX_VALUE, Long.MIN_VALUE, 1.5d, 3d,
+        -0d, Double.NaN, 1e300d, 0.1f, 2f, true, false, TestEnum.BAR, new SomeObject(5, "x")
+    );
+    for (Object value : values) {
+      String serialized = storageHandler.serialize(value);
+      assertThat(serialized.startsWith(BinaryStorageHandler.PREFIX), is(true));
+      assertThat(storageHandler.deserialize(serialized, value.getClass()), is(value));
+    }
+    assertThat(storageHandler.deserialize(storageHandler.serialize(null), String.class),
+        is(nullValue()));
+    // like with Gson, numbers are read as doubles if the type is unknown
+    assertThat(storageHandler.deserialize(storageHandler.serialize(5), Object.class), is(5d));
+  }
+
+  @Test
+  public void listsAreDeserializedAsTheirType() {
+    assertList(asList(1, 2, 300, -40000), Integer.class);
+    assertList(asList(1.5d, 2.5d), Double.class);
+    assertList(asList(1d, 2.5d, null), Double.class);
+    assertList(asList("a", "", "c"), String.class);
+    assertList(asList(TestEnum.FOO, TestEnum.BAZ), TestEnum.class);
+    assertList(asList(new SomeObject(1, "a"), null, new SomeObject(2, "b")), SomeObject.class);
+    assertList(asList(), String.class);
+
+    storageHandler.saveObject("foo", asList("x", "y"));
+    assertThat(
+        storageHandler.loadObservableList("foo", observableArrayList("z")),
+        is(observableArrayList("x", "y"))
+    );
+  }
+
+  private <T> void assertList(List<T> list, Class<T> type) {
+    assertThat(storageHandler.deserializeList(storageHandler.serialize(list), type), is(list));
+  }
+
+  @Test
+  public void integerListsAreSmallerThanJson() {
+    List<Integer> integers = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+    Gson gson = new Gson();
+    assertThat(
+        storageHandler.serialize(integers).length() < gson.toJson(integers).length(), is(true)
+    );
+  }
+
+  @Test
+  public void jsonValuesAreMigrated() {
+    StorageHandlerImpl jsonStorageHandler = new StorageHandlerImpl(BinaryStorageHandlerTest.class);
+    jsonStorageHandler.saveObject("string", "a");
+    jsonStorageHandler.saveObject("integer", 5);
+    jsonStorageHandler.saveObject("double", 1.25d);
+    jsonStorageHandler.saveObject("enum", TestEnum.BAZ);
+    jsonStorageHandler.saveObject("object", new SomeObject(3, "y"));
+    jsonStorageHandler.saveObject("list", asList(1L, 2L));
+    jsonStorageHandler.saveWindowWidth(123);
+
+    // values stored as JSON can be read before the migration
+    assertThat(storageHandler.loadObject("integer", 0), is(5));
+    assertThat(storageHandler.loadObservableList("list", Long.class, null),
+        is(observableArrayList(1L, 2L)));
+
+    assertThat(storageHandler.migrate(), is(6));
+    assertThat(storageHandler.migrate(), is(0));
+
+    String stored = storageHandler.getPreferences().get(storageHandler.hash("string"), null);
+    assertThat(stored.startsWith(BinaryStorageHandler.PREFIX), is(true));
+    assertThat(storageHandler.loadObject("string", ""), is("a"));
+    assertThat(storageHandler.loadObject("integer", 0), is(5));
+    assertThat(storageHandler.loadObject("double", 0d), is(1.25d));
+    assertThat(storageHandler.loadObject("enum", TestEnum.FOO), is(TestEnum.BAZ));
+    assertThat(storageHandler.loadObject("object", new SomeObject(0, "")),
+        is(new SomeObject(3, "y")));
+    assertThat(storageHandler.loadObservableList("list", Long.class, null),
+        is(observableArrayList(1L, 2L)));
+    assertThat(storageHandler.loadWindowWidth(), is(123d));
+  }
+}
@@ -0,0 +1,181 @@
+package com.dlsc.preferencesfx.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.dlsc.preferencesfx.util.StorageHandlerImplTest.SomeObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test class for {@link FileStorageHandler}.
+ */
+public class FileStorageHandlerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path file;
+  private FileStorageHandler storageHandler;
+
+  @Before
+  public void setUp() {
+    file = folder.getRoot().toPath().resolve("preferences.store");
+    storageHandler = new FileStorageHandler(file);
+  }
+
+  @After
+  public void tearDown() {
+    storageHandler.close();
+  }
+
+  private void reopen() {
+    storageHandler.close();
+    storageHandler = new FileStorageHandler(file);
+  }
+
+  @Test
+  public void valuesAreLoadedAfterReopening() {
+    storageHandler.saveObject("string", "a");
+    storageHandler.saveObject("integer", 1);
+    storageHandler.saveObject("list", FXCollections.observableArrayList("x", "y"));
+    storageHandler.saveWindowWidth(123);
+    storageHandler.saveObject("string", "b");
+
+    reopen();
+
+    assertThat(storageHandler.loadObject("string", "default"), is("b"));
+    assertThat(storageHandler.loadObject("integer", Integer.class, 0), is(1));
+    assertThat(
+        storageHandler.loadObservableList("list", FXCollections.observableArrayList("z")),
+        is(FXCollections.observableArrayList("x", "y"))
+    );
+    assertThat(storageHandler.loadWindowWidth(), is(123d));
+    assertThat(
+        storageHandler.loadWindowHeight(), is((double) Constants.DEFAULT_PREFERENCES_HEIGHT)
+    );
+    assertThat(storageHandler.loadObject("missing", "default"), is("default"));
+  }
+
+  @Test
+  public void largeListsCanBeStored() {
+    ObservableList<String> list = IntStream.range(0, 10_000)
+        .mapToObj(i -> "item " + i)
+        .collect(Collectors.toCollection(FXCollections::observableArrayList));
+    storageHandler.saveObject("list", list);
+
+    reopen();
+
+    assertThat(storageHandler.loadObservableList("list", String.class, null), is(list));
+  }
+
+  @Test
+  public void incompleteBatchIsDiscarded() throws IOException {
+    Map<String, Object> values = new LinkedHashMap<>();
+    values.put("first", 1);
+    values.put("second", 2);
+    storageHandler.saveAll(values);
+    long committedSize = Files.size(file);
+    values.put("first", 3);
+    storageHandler.saveAll(values);
+    storageHandler.close();
+
+    // simulate a crash while writing the second batch by cutting off its commit record
+    byte[] bytes = Files.readAllBytes(file);
+    byte[] torn = new byte[bytes.length - 1];
+    System.arraycopy(bytes, 0, torn, 0, torn.length);
+    Files.write(file, torn, StandardOpenOption.TRUNCATE_EXISTING);
+
+    storageHandler = new FileStorageHandler(file);
+    assertThat(storageHandler.loadObject("first", Integer.class, 0), is(1));
+    assertThat(storageHandler.loadObject("second", Integer.class, 0), is(2));
+    assertThat(Files.size(file), is(committedSize));
+
+    storageHandler.saveObject("second", 4);
+    reopen();
+    assertThat(storageHandler.loadObject("second", Integer.class, 0), is(4));
+  }
+
+  @Test
+  public void logIsCompacted() throws IOException {
+    String value = String.join("", Collections.nCopies(1000, "x"));
+    for (int i = 0; i < 200; i++) {
+      storageHandler.saveObject("key", value + i);
+    }
+
+    assertThat(Files.size(file) < AppendOnlyStore.MIN_COMPACTION_SIZE, is(true));
+    reopen();
+    assertThat(storageHandler.loadObject("key", ""), is(value + 199));
+
+    storageHandler.saveObject("other", 1);
+    storageHandler.compact();
+    reopen();
+    assertThat(storageHandler.loadObject("other", Integer.class, 0), is(1));
+    assertThat(storageHandler.loadObject("key", ""), is(value + 199));
+  }
+
+  @Test
+  public void clearPreferences() {
+    storageHandler.saveObject("string", "a");
+    assertThat(storageHandler.clearPreferences(), is(true));
+    assertThat(storageHandler.loadObject("string", "default"), is("default"));
+    reopen();
+    assertThat(storageHandler.loadObject("string", "default"), is("default"));
+  }
+
+  @Test
+  public void registeredCodecIsUsed() throws IOException {
+    storageHandler.registerCodec(SomeObject.class, Codec.of(
+        object -> object.foo + ":" + object.bar,
+        text -> new SomeObject(Integer.parseInt(text.split(":")[0]), text.split(":")[1])
+    ));
+    storageHandler.saveObject("foo", new SomeObject(1, "a"));
+    storageHandler.saveObject("bar", Arrays.asList(new SomeObject(2, "b"), null));
+    assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)
+        .contains("[\"2:b\",null]"), is(true));
+
+    reopen();
+    storageHandler.registerCodec(SomeObject.class, Codec.of(
+        object -> object.foo + ":" + object.bar,
+        text -> new SomeObject(Integer.parseInt(text.split(":")[0]), text.split(":")[1])
+    ));
+    assertThat(
+        storageHandler.loadObject("foo", SomeObject.class, null), is(new SomeObject(1, "a"))
+    );
+    assertThat(
+        storageHandler.loadObservableList("bar", SomeObject.class, null),
+        is(FXCollections.observableArrayList(new SomeObject(2, "b"), null))
+    );
+  }
+
+  @Test
+  public void valuesAreReadAfterCompactingAndClearing() {
+    storageHandler.saveObject("first", "a");
+    storageHandler.saveObject("second", "b");
+    storageHandler.saveObject("first", "c");
+    storageHandler.compact();
+    storageHandler.saveObject("second", "d");
+
+    assertThat(storageHandler.loadObject("first", ""), is("c"));
+    assertThat(storageHandler.loadObject("second", ""), is("d"));
+    assertThat(storageHandler.clearPreferences(), is(true));
+    storageHandler.saveObject("first", "e");
+    assertThat(storageHandler.loadObject("first", ""), is("e"));
+  }
+}
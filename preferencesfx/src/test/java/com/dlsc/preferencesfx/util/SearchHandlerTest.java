@@ -1,10 +1,29 @@
 package com.dlsc.preferencesfx.util;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
+import com.dlsc.preferencesfx.history.History;
 import com.dlsc.preferencesfx.model.Category;
+import com.dlsc.preferencesfx.model.Group;
 import com.dlsc.preferencesfx.model.PreferencesFxModel;
+import com.dlsc.preferencesfx.model.Setting;
+import com.dlsc.preferencesfx.view.TreeItemPredicate;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -60,6 +79,150 @@ public class SearchHandlerTest {
     }
   }
 
+  @Test
+  public void searchTextSelectsMatchingCategory() {
+    Category fonts = Category.of("Fonts", Setting.of("Font Size", new SimpleIntegerProperty(12)));
+    Category screen = Category.of("Screen",
+        Group.of("Scaling & Ordering", Setting.of("Zoom", new SimpleIntegerProperty(1))));
+    PreferencesFxModel model = new PreferencesFxModel(
+        new StorageHandlerImpl(SearchHandlerTest.class), searchHandler, new History(),
+        new Category[] {fonts, screen}
+    );
+    StringProperty searchText = new SimpleStringProperty("");
+    ObjectProperty<TreeItemPredicate<Category>> predicate = new SimpleObjectProperty<>();
+    model.searchTextProperty().bind(searchText);
+    searchHandler.init(model, searchText, predicate);
+
+    searchText.set("size");
+    assertSame(fonts, searchHandler.getCategoryMatch());
+    assertTrue(fonts.getGroups().get(0).getSettings().get(0).isMarked());
+    assertTrue(predicate.get().test(null, fonts));
+    assertFalse(predicate.get().test(null, screen));
+
+    searchText.set("ordering");
+    assertSame(screen, searchHandler.getCategoryMatch());
+    assertFalse(fonts.getGroups().get(0).getSettings().get(0).isMarked());
+    assertTrue(screen.getGroups().get(0).isMarked());
+    assertFalse(predicate.get().test(null, fonts));
+    assertTrue(predicate.get().test(null, screen));
+
+    searchText.set("");
+    assertNull(searchHandler.getCategoryMatch());
+    assertFalse(screen.getGroups().get(0).isMarked());
+  }
+
+  /**
+   * Creates a model with the categories "Fonts" and "Screen" and initializes the search handler
+   * with it.
+   *
+   * @return the search text to set
+   */
+  private StringProperty initSearch(Category fonts, Category screen) {
+    PreferencesFxModel model = new PreferencesFxModel(
+        new StorageHandlerImpl(SearchHandlerTest.class), searchHandler, new History(),
+        new Category[] {fonts, screen}
+    );
+    StringProperty searchText = new SimpleStringProperty("");
+    model.searchTextProperty().bind(searchText);
+    searchHandler.init(model, searchText, new SimpleObjectProperty<>());
+    return searchText;
+  }
+
+  @Test
+  public void matchesUnmarkedByTheMouseAreMarkedAgain() {
+    Setting fontSize = Setting.of("Font Size", new SimpleIntegerProperty(12));
+    Category fonts = Category.of("Fonts", fontSize);
+    Category screen = Category.of("Screen", Setting.of("Zoom", new SimpleIntegerProperty(1)));
+    StringProperty searchText = initSearch(fonts, screen);
+
+    searchText.set("siz");
+    assertTrue(fontSize.isMarked());
+    // like moving the mouse over the label of the setting
+    fontSize.unmark();
+    searchText.set("size");
+    assertTrue(fontSize.isMarked());
+  }
+
+  @Test
+  public void deferredSearchIsDebounced() throws InterruptedException {
+    Category fonts = Category.of("Fonts", Setting.of("Font Size", new SimpleIntegerProperty(12)));
+    Category screen = Category.of("Screen",
+        Group.of("Scaling & Ordering", Setting.of("Zoom", new SimpleIntegerProperty(1))));
+    RecordingSearchExecutor searchExecutor = new RecordingSearchExecutor();
+    BlockingQueue<Runnable> fxQueue = new LinkedBlockingQueue<>();
+    searchHandler.setSearchDelay(50);
+    searchHandler.setSearchExecutor(searchExecutor);
+    searchHandler.setFxExecutor(fxQueue::add);
+    StringProperty searchText = initSearch(fonts, screen);
+
+    searchText.set("size");
+    searchText.set("ordering");
+    // the search for the superseded text never runs
+    assertTrue(searchExecutor.scheduled.get(0).isCancelled());
+    assertNull(searchHandler.getCategoryMatch());
+
+    fxQueue.poll(5, TimeUnit.SECONDS).run();
+    assertSame(screen, searchHandler.getCategoryMatch());
+    assertTrue(screen.getGroups().get(0).isMarked());
+    assertFalse(fonts.getGroups().get(0).getSettings().get(0).isMarked());
+    assertNull(fxQueue.poll(200, TimeUnit.MILLISECONDS));
+    searchExecutor.shutdownNow();
+  }
+
+  @Test
+  public void outdatedBackgroundSearchResultsAreDiscarded() throws InterruptedException {
+    Category fonts = Category.of("Fonts", Setting.of("Font Size", new SimpleIntegerProperty(12)));
+    Category screen = Category.of("Screen",
+        Group.of("Scaling & Ordering", Setting.of("Zoom", new SimpleIntegerProperty(1))));
+    RecordingSearchExecutor searchExecutor = new RecordingSearchExecutor();
+    BlockingQueue<Runnable> fxQueue = new LinkedBlockingQueue<>();
+    searchHandler.setBackgroundSearch(true);
+    searchHandler.setSearchExecutor(searchExecutor);
+    searchHandler.setFxExecutor(fxQueue::add);
+    StringProperty searchText = initSearch(fonts, screen);
+
+    searchText.set("size");
+    Runnable outdatedResult = fxQueue.poll(5, TimeUnit.SECONDS);
+    // the text changes after the background search finished, but before its result was applied
+    searchText.set("ordering");
+    outdatedResult.run();
+    assertNull(searchHandler.getCategoryMatch());
+    assertFalse(fonts.getGroups().get(0).getSettings().get(0).isMarked());
+
+    fxQueue.poll(5, TimeUnit.SECONDS).run();
+    assertSame(screen, searchHandler.getCategoryMatch());
+    assertTrue(screen.getGroups().get(0).isMarked());
+    searchExecutor.shutdownNow();
+  }
+
+  @Test
+  public void searchExecutorIsShutDownWhenSearchIsNoLongerDeferred() {
+    RecordingSearchExecutor searchExecutor = new RecordingSearchExecutor();
+    searchHandler.setBackgroundSearch(true);
+    searchHandler.setSearchExecutor(searchExecutor);
+
+    searchHandler.setBackgroundSearch(false);
+    assertTrue(searchExecutor.isShutdown());
+  }
+
+  /**
+   * Keeps the futures of all scheduled searches.
+   */
+  private static class RecordingSearchExecutor extends ScheduledThreadPoolExecutor {
+    private final List<ScheduledFuture<?>> scheduled = new CopyOnWriteArrayList<>();
+
+    RecordingSearchExecutor() {
+      super(1);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      ScheduledFuture<?> future = super.schedule(command, delay, unit);
+      scheduled.add(future);
+      return future;
+    }
+  }
+
   @Test
   public void getCategoryMatch() {
   }
@@ -0,0 +1,83 @@
+package com.dlsc.preferencesfx.util;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@link SearchIndex}.
+ */
+public class SearchIndexTest {
+
+  private List<String> items;
+  private Map<String, String> descriptions;
+  private SearchIndex<String> searchIndex;
+
+  @Before
+  public void setUp() {
+    items = asList("a", "b", "c", "d");
+    descriptions = new HashMap<>();
+    descriptions.put("a", "Font Size");
+    descriptions.put("b", "Scaling & Ordering");
+    descriptions.put("c", "Favorites");
+    descriptions.put("d", null);
+    searchIndex = new SearchIndex<>(items, descriptions::get);
+  }
+
+  @Test
+  public void searchFindsSameAsContainsIgnoreCase() {
+    for (String searchText : asList("f", "F", "fo", "fO", "nt si", "ord", "ing", "ize",
+        "avorites", "favoritesX", "awdawdhwhd", " ", "& o", "sizes")) {
+      List<String> expected = new ArrayList<>();
+      for (String item : items) {
+        if (Strings.containsIgnoreCase(descriptions.get(item), searchText)) {
+          expected.add(item);
+        }
+      }
+      assertThat(searchText, searchIndex.search(searchText), is(expected));
+    }
+  }
+
+  @Test
+  public void searchDoesNotFindGramsInWrongOrder() {
+    descriptions.put("a", "abcxbcd");
+    searchIndex.refresh();
+    assertThat(searchIndex.search("abcd"), is(emptyList()));
+    assertThat(searchIndex.search("xbcd"), is(singletonList("a")));
+  }
+
+  @Test
+  public void extendedSearchTextRefinesPreviousMatches() {
+    assertThat(searchIndex.search("o"), is(asList("a", "b", "c")));
+    assertThat(searchIndex.search("or"), is(asList("b", "c")));
+    assertThat(searchIndex.search("ori"), is(asList("c")));
+    assertThat(searchIndex.search("vorit"), is(asList("c")));
+    // deleting characters searches all items again
+    assertThat(searchIndex.search("o"), is(asList("a", "b", "c")));
+    // changed descriptions aren't refined from outdated matches
+    searchIndex.search("ori");
+    descriptions.put("a", "Fonts for Favorites");
+    searchIndex.refresh();
+    assertThat(searchIndex.search("orit"), is(asList("a", "c")));
+  }
+
+  @Test
+  public void refreshOnlyUpdatesChangedDescriptions() {
+    assertThat(searchIndex.refresh(), is(0));
+    descriptions.put("a", "Schriftgrösse");
+    descriptions.put("d", "Zoom");
+    assertThat(searchIndex.refresh(), is(2));
+    assertThat(searchIndex.search("font"), is(emptyList()));
+    assertThat(searchIndex.search("GRÖSSE"), is(singletonList("a")));
+    assertThat(searchIndex.search("oo"), is(singletonList("d")));
+  }
+}
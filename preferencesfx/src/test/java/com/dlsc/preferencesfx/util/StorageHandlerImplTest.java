@@ -1,11 +1,19 @@
 package com.dlsc.preferencesfx.util;
 
+import com.google.gson.Gson;
 import javafx.collections.ObservableList;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static com.dlsc.preferencesfx.util.Constants.*;
 import static java.util.Arrays.asList;
@@ -145,6 +153,38 @@ public class StorageHandlerImplTest {
     assertThat(defaultObject, is(instanceOf(SomeObject.class)));
   }
 
+  @Test
+  public void saveAllAndLoadObjects() {
+    final Map<String, Object> objects = new LinkedHashMap<>();
+    objects.put("foo", "baz");
+    objects.put("bar", 10);
+    objects.put("baz", TestEnum.FOO);
+    storageHandler.saveAll(objects);
+
+    assertThat(storageHandler.loadObject("foo", "bar"), is("baz"));
+    assertThat(storageHandler.loadObject("bar", 5), is(10));
+    assertThat(storageHandler.loadObject("baz", TestEnum.BAR), is(TestEnum.FOO));
+  }
+
+  @Test
+  public void saveAllSavesEachObject() {
+    final List<String> saved = new ArrayList<>();
+    StorageHandler recordingStorageHandler = new StorageHandlerImpl(StorageHandlerImplTest.class) {
+      @Override
+      public void saveObject(String breadcrumb, Object object) {
+        saved.add(breadcrumb);
+        super.saveObject(breadcrumb, object);
+      }
+    };
+    final Map<String, Object> objects = new LinkedHashMap<>();
+    objects.put("foo", "baz");
+    objects.put("bar", 10);
+    recordingStorageHandler.saveAll(objects);
+
+    assertThat(saved, is(asList("foo", "bar")));
+    assertThat(storageHandler.loadObject("bar", 5), is(10));
+  }
+
   @Test
   public void saveAndLoadObjectWithNullAsDefault() {
     storageHandler.saveObject("foo", "baz");
@@ -287,6 +327,108 @@ public class StorageHandlerImplTest {
     assertThat(enumList, is(observableList(asList(TestEnum.FOO, TestEnum.BAR))));
   }
 
+  @Test
+  public void defaultsAreNotSerialized() {
+    final int[] serialized = new int[1];
+    StorageHandlerImpl storageHandler = new StorageHandlerImpl(StorageHandlerImplTest.class) {
+      @Override
+      protected String serialize(Object object) {
+        serialized[0]++;
+        return super.serialize(object);
+      }
+    };
+
+    assertThat(storageHandler.loadObject("foo", new SomeObject(5, "x")), is(new SomeObject(5, "x")));
+    assertThat(storageHandler.loadObservableList("foo", observableList(asList("a"))), is(observableList(asList("a"))));
+    assertThat(serialized[0], is(0));
+  }
+
+  @Test
+  public void preloadedValuesAreLoaded() {
+    StorageHandlerImpl storageHandler = new StorageHandlerImpl(StorageHandlerImplTest.class);
+    storageHandler.saveObject("foo", "baz");
+    storageHandler.saveObject("bar", asList(1, 2));
+    storageHandler.preloadValues();
+
+    // the preferences are no longer read while the values are preloaded
+    storageHandler.getPreferences().remove(storageHandler.hash("foo"));
+    assertThat(storageHandler.loadObject("foo", "default"), is("baz"));
+    assertThat(storageHandler.loadObservableList("bar", observableList(asList(3))), is(observableList(asList(1, 2))));
+    assertThat(storageHandler.loadObject("missing", "default"), is("default"));
+
+    storageHandler.clearPreloadedValues();
+    assertThat(storageHandler.loadObject("foo", "default"), is("default"));
+
+    // saving discards the preloaded values
+    storageHandler.preloadValues();
+    storageHandler.saveObject("foo", "qux");
+    assertThat(storageHandler.loadObject("foo", "default"), is("qux"));
+  }
+
+  @Test
+  public void builtInCodecsAreCompatibleWithGson() {
+    StorageHandlerImpl storageHandler = new StorageHandlerImpl(StorageHandlerImplTest.class);
+    Gson gson = new Gson();
+    List<Object> values = asList(
+        "plain", "\"quoted\" \\ \n\t\u0001  ä", "", 5, -12L, 1.5d, 1e20d, 0.1f, true, false
+    );
+    for (Object value : values) {
+      String serialized = storageHandler.serialize(value);
+      assertThat(serialized, is(gson.toJson(value)));
+      assertThat(storageHandler.deserialize(serialized, value.getClass()), is(value));
+      assertThat(storageHandler.deserialize(gson.toJson(value), value.getClass()), is(value));
+    }
+    List<String> list = asList("a", null, "b,\"c\"", "[d]");
+    assertThat(storageHandler.serialize(list), is(gson.toJson(list)));
+    assertThat(storageHandler.deserializeList(gson.toJson(list), String.class), is(list));
+    assertThat(storageHandler.deserializeList("[]", Integer.class), is(emptyList()));
+  }
+
+  @Test
+  public void registeredCodecIsUsed() {
+    StorageHandlerImpl storageHandler = new StorageHandlerImpl(StorageHandlerImplTest.class);
+    // stored by Gson, before the codec was registered
+    storageHandler.saveObject("foo", new SomeObject(1, "before"));
+    storageHandler.registerCodec(SomeObject.class, Codec.of(
+        object -> object.foo + ":" + object.bar,
+        text -> new SomeObject(Integer.parseInt(text.split(":")[0]), text.split(":")[1])
+    ));
+    storageHandler.registerCodec(TestEnum.class, Codec.ofEnum(TestEnum.class));
+
+    final SomeObject defaultObject = new SomeObject(0, "default");
+    assertThat(storageHandler.loadObject("foo", defaultObject), is(new SomeObject(1, "before")));
+    assertThat(storageHandler.serialize(new SomeObject(2, "a")), is("\"2:a\""));
+    storageHandler.saveObject("foo", new SomeObject(3, "after"));
+    assertThat(storageHandler.loadObject("foo", defaultObject), is(new SomeObject(3, "after")));
+
+    storageHandler.saveObject("bar", asList(new SomeObject(4, "x"), new SomeObject(5, "y")));
+    assertThat(
+        storageHandler.loadObservableList("bar", SomeObject.class, observableList(emptyList())),
+        is(observableList(asList(new SomeObject(4, "x"), new SomeObject(5, "y"))))
+    );
+
+    storageHandler.saveObject("baz", TestEnum.BAZ);
+    assertThat(storageHandler.loadObject("baz", TestEnum.FOO), is(TestEnum.BAZ));
+  }
+
+  @Test
+  public void changesAreWatched() throws InterruptedException {
+    StorageHandlerImpl storageHandler = new StorageHandlerImpl(StorageHandlerImplTest.class);
+    BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+    storageHandler.loadObject("foo", "default");
+    assertThat(storageHandler.watchChanges(changes::add), is(true));
+    try {
+      StorageHandlerImpl other = new StorageHandlerImpl(StorageHandlerImplTest.class);
+      other.saveObject("unknown", "a");
+      other.saveObject("foo", "b");
+      // only breadcrumbs which were used by the storage handler can be reported
+      assertThat(changes.poll(5, TimeUnit.SECONDS), is("foo"));
+      assertThat(storageHandler.loadObject("foo", "default"), is("b"));
+    } finally {
+      storageHandler.stopWatchingChanges();
+    }
+  }
+
   @Test
   public void shaHashing() {
     StorageHandlerImpl storageHandler = new StorageHandlerImpl(StorageHandlerImplTest.class);
@@ -294,6 +436,19 @@ public class StorageHandlerImplTest {
     assertThat(result, is("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08"));
   }
 
+  @Test
+  public void shaHashingIsCachedUntilInvalidated() {
+    StorageHandlerImpl storageHandler = new StorageHandlerImpl(StorageHandlerImplTest.class);
+    final String result = storageHandler.hash("test");
+    assertThat(storageHandler.hash("test"), is(sameInstance(result)));
+    assertThat(storageHandler.hash("foo"), is(Strings.sha256("foo")));
+
+    storageHandler.invalidateKey("test");
+    final String recalculated = storageHandler.hash("test");
+    assertThat(recalculated, is(not(sameInstance(result))));
+    assertThat(recalculated, is(result));
+  }
+
   public enum TestEnum {
     FOO, BAR, BAZ
   }
@@ -0,0 +1,37 @@
+package com.dlsc.preferencesfx.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import org.junit.Test;
+
+/**
+ * Test class for {@link VisibilityProperty}.
+ */
+public class VisibilityPropertyTest {
+
+  @Test
+  public void visibilityIsEvaluatedOncePerChange() {
+    IntegerProperty source = new SimpleIntegerProperty(5);
+    AtomicInteger evaluations = new AtomicInteger();
+    VisibilityProperty visibilityProperty = VisibilityProperty.of(source, value -> {
+      evaluations.incrementAndGet();
+      return value.intValue() > 10;
+    });
+
+    BooleanProperty visible = visibilityProperty.get();
+    assertThat(visibilityProperty.get(), is(sameInstance(visible)));
+    assertThat(visible.get(), is(false));
+    assertThat(evaluations.get(), is(1));
+
+    source.set(20);
+    visibilityProperty.get();
+    assertThat(visible.get(), is(true));
+    assertThat(evaluations.get(), is(2));
+  }
+}